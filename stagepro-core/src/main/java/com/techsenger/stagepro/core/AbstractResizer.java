@@ -16,13 +16,18 @@
 
 package com.techsenger.stagepro.core;
 
-import java.util.function.Consumer;
 import javafx.beans.property.BooleanProperty;
 import javafx.beans.property.DoubleProperty;
 import javafx.beans.property.SimpleBooleanProperty;
+import javafx.event.Event;
 import javafx.event.EventHandler;
+import javafx.event.EventType;
+import javafx.geometry.Insets;
 import javafx.scene.Cursor;
+import javafx.scene.input.InputEvent;
 import javafx.scene.input.MouseEvent;
+import javafx.scene.input.TouchEvent;
+import javafx.scene.input.ZoomEvent;
 
 /**
  * This class lets create resizers that can work with different JavaFX components, for example, Region,
@@ -32,6 +37,35 @@ import javafx.scene.input.MouseEvent;
  */
 abstract class AbstractResizer {
 
+    /**
+     * Snaps the position of an edge.
+     */
+    @FunctionalInterface
+    interface EdgeSnapper {
+
+        /**
+         * Returns the snapped position of the edge or the given position.
+         *
+         * @param position the position of the edge.
+         * @param spanMin the start of the edge.
+         * @param spanMax the end of the edge.
+         */
+        double snap(double position, double spanMin, double spanMax);
+    }
+
+    static final int NORTH = 1;
+
+    static final int SOUTH = 2;
+
+    static final int WEST = 4;
+
+    static final int EAST = 8;
+
+    /**
+     * The margin of the resizing zone for touches, a finger is much less precise than a mouse.
+     */
+    static final double TOUCH_MARGIN = 12;
+
     private double pressedY;
 
     private double pressedX;
@@ -44,7 +78,10 @@ abstract class AbstractResizer {
 
     private double pressedMouseX;
 
-    private Consumer<MouseEvent> helper;
+    /**
+     * The edges that are being resized, 0 if resizing is not in progress.
+     */
+    private int edges;
 
     private final DoubleProperty minWidth;
 
@@ -56,15 +93,100 @@ abstract class AbstractResizer {
 
     private boolean cursorReplaced = false;
 
-    private final EventHandler<? super MouseEvent> startedHandler;
+    /**
+     * The id of the touch point that resizes the component, -1 if there is no such touch.
+     */
+    private int touchId = -1;
+
+    /**
+     * True when the component is resized by a pinch.
+     */
+    private boolean zooming = false;
+
+    private boolean pinchEnabled = false;
+
+    /**
+     * The latest touch position (or zoom factor in x) that is not committed yet, touches are committed once per pulse.
+     */
+    private double pendingX;
+
+    private double pendingY;
 
-    private final EventHandler<? super MouseEvent> finishedHandler;
+    private boolean commitPending = false;
+
+    private final EventHandler<? super InputEvent> startedHandler;
+
+    private final EventHandler<? super InputEvent> finishedHandler;
 
     private final BooleanProperty disabled = new SimpleBooleanProperty(false);
 
+    private EdgeSnapper verticalEdgeSnapper;
+
+    private EdgeSnapper horizontalEdgeSnapper;
+
+    private Runnable resizedHandler;
+
+    /**
+     * The insets between the bounds of the component and its visible part (for example, a shadow).
+     */
+    private Insets insets = Insets.EMPTY;
+
+    /**
+     * The steps of the size, the size changes only by whole steps from the size at the start of resizing. 0 means
+     * no step.
+     */
+    private double widthStep = 0;
+
+    private double heightStep = 0;
+
+    /**
+     * The ratio of width to height that is kept when resizing, 0 means no ratio.
+     */
+    private double aspectRatio = 0;
+
+    private boolean mouseFiltersEnabled = false;
+
+    private boolean touchFiltersEnabled = false;
+
+    private final EventHandler<MouseEvent> mousedPressedHandler = (event) -> {
+        if (!checkSynthesized(event)) {
+            mousePressed(event);
+        }
+    };
+
+    private final EventHandler<MouseEvent> mousedMovedHandler = (event) -> {
+        if (!checkSynthesized(event)) {
+            mouseMoved(event);
+        }
+    };
+
+    private final EventHandler<MouseEvent> mousedDraggedHandler = (event) -> {
+        if (!checkSynthesized(event)) {
+            mouseDragged(event);
+        }
+    };
+
+    private final EventHandler<MouseEvent> mousedReleasedHandler = (event) -> {
+        if (!checkSynthesized(event)) {
+            mouseReleased(event);
+        }
+    };
+
+    private final EventHandler<TouchEvent> touchPressedHandler = (event) -> touchPressed(event);
+
+    private final EventHandler<TouchEvent> touchMovedHandler = (event) -> touchMoved(event);
+
+    private final EventHandler<TouchEvent> touchReleasedHandler = (event) -> touchReleased(event);
+
+    private final EventHandler<ZoomEvent> zoomStartedHandler = (event) -> zoomStarted(event);
+
+    private final EventHandler<ZoomEvent> zoomHandler = (event) -> zoom(event);
+
+    private final EventHandler<ZoomEvent> zoomFinishedHandler = (event) -> zoomFinished(event);
+
     AbstractResizer(DoubleProperty minWidth, DoubleProperty minHeight, DoubleProperty maxWidth,
-            DoubleProperty maxHeight, EventHandler<? super MouseEvent> startedHandler,
-            EventHandler<? super MouseEvent> finishedHandler) {
+            DoubleProperty maxHeight, EventHandler<? super InputEvent> startedHandler,
+            EventHandler<? super InputEvent> finishedHandler) {
         this.minWidth = minWidth;
         this.minHeight = minHeight;
         this.maxWidth = maxWidth;
@@ -85,6 +207,117 @@ abstract class AbstractResizer {
         this.disabled.set(disabled);
     }
 
+    /**
+     * Sets the snapper for vertical edges (west and east), the position of such an edge is x.
+     */
+    void setVerticalEdgeSnapper(EdgeSnapper snapper) {
+        this.verticalEdgeSnapper = snapper;
+    }
+
+    /**
+     * Sets the snapper for horizontal edges (north and south), the position of such an edge is y.
+     */
+    void setHorizontalEdgeSnapper(EdgeSnapper snapper) {
+        this.horizontalEdgeSnapper = snapper;
+    }
+
+    /**
+     * Sets the handler that is called after every change of the bounds made by this resizer.
+     */
+    void setResizedHandler(Runnable handler) {
+        this.resizedHandler = handler;
+    }
+
+    /**
+     * Adds or removes the event filters of the component. Without the filters the resizer gets only the events that
+     * are forwarded to it, for example, by {@link ResizeRegions}.
+     */
+    void setFiltersEnabled(boolean enabled) {
+        setMouseFiltersEnabled(enabled);
+        if (!isTouchSupported() || this.touchFiltersEnabled == enabled) {
+            return;
+        }
+        this.touchFiltersEnabled = enabled;
+        setFilter(TouchEvent.TOUCH_PRESSED, touchPressedHandler, enabled);
+        setFilter(TouchEvent.TOUCH_MOVED, touchMovedHandler, enabled);
+        setFilter(TouchEvent.TOUCH_RELEASED, touchReleasedHandler, enabled);
+        setFilter(ZoomEvent.ZOOM_STARTED, zoomStartedHandler, enabled);
+        setFilter(ZoomEvent.ZOOM, zoomHandler, enabled);
+        setFilter(ZoomEvent.ZOOM_FINISHED, zoomFinishedHandler, enabled);
+    }
+
+    /**
+     * Adds or removes only the mouse filters of the component, the touch and pinch filters are not changed.
+     */
+    void setMouseFiltersEnabled(boolean enabled) {
+        if (this.mouseFiltersEnabled == enabled) {
+            return;
+        }
+        this.mouseFiltersEnabled = enabled;
+        setFilter(MouseEvent.MOUSE_PRESSED, mousedPressedHandler, enabled);
+        setFilter(MouseEvent.MOUSE_MOVED, mousedMovedHandler, enabled);
+        setFilter(MouseEvent.MOUSE_DRAGGED, mousedDraggedHandler, enabled);
+        setFilter(MouseEvent.MOUSE_RELEASED, mousedReleasedHandler, enabled);
+    }
+
+    /**
+     * Sets the insets between the bounds of the component and its visible part. The insets are a part of the
+     * resizing zone.
+     */
+    void setInsets(Insets insets) {
+        this.insets = insets == null ? Insets.EMPTY : insets;
+    }
+
+    public double getWidthStep() {
+        return widthStep;
+    }
+
+    public double getHeightStep() {
+        return heightStep;
+    }
+
+    /**
+     * Sets the steps of the size (for example, the size of a character cell), 0 means no step. The size changes only
+     * by whole steps from the size at the start of resizing within the min and max size.
+     */
+    public void setSizeSteps(double widthStep, double heightStep) {
+        this.widthStep = widthStep;
+        this.heightStep = heightStep;
+    }
+
+    public double getAspectRatio() {
+        return aspectRatio;
+    }
+
+    public boolean isPinchEnabled() {
+        return pinchEnabled;
+    }
+
+    /**
+     * Sets if the component can be resized by a pinch (zoom gesture) around its center. The default value is false.
+     */
+    public void setPinchEnabled(boolean enabled) {
+        this.pinchEnabled = enabled;
+    }
+
+    /**
+     * Sets the ratio of width to height that is kept when resizing, 0 means no ratio.
+     */
+    public void setAspectRatio(double aspectRatio) {
+        this.aspectRatio = aspectRatio;
+    }
+
+    /**
+     * Returns the horizontal scale of the output device, the bounds are snapped to device pixels using this scale.
+     */
+    protected double getOutputScaleX() {
+        return 1;
+    }
+
+    protected double getOutputScaleY() {
+        return 1;
+    }
+
     protected abstract double getWidth();
 
     protected abstract void setWidth(double width);
@@ -109,14 +342,36 @@ abstract class AbstractResizer {
 
     protected abstract double getMargin();
 
+    /**
+     * Adds the filter to the component that is resized.
+     */
+    protected abstract <T extends Event> void addEventFilter(EventType<T> type, EventHandler<? super T> filter);
+
+    protected abstract <T extends Event> void removeEventFilter(EventType<T> type, EventHandler<? super T> filter);
+
+    /**
+     * Returns the min width of the component that is used when the min width property is not set.
+     */
+    protected double getComputedMinWidth() {
+        return 0;
+    }
+
+    protected double getComputedMinHeight() {
+        return 0;
+    }
+
+    /**
+     * Returns true if the filters of touches and pinches are added with the mouse filters.
+     */
+    protected boolean isTouchSupported() {
+        return false;
+    }
+
     protected void mouseReleased(MouseEvent event) {
-        if (this.helper != null) {
-            this.helper = null;
+        if (this.edges != 0 && !isTouchResizing()) {
             setCursor(Cursor.DEFAULT);
             this.cursorReplaced = false;
-            if (this.finishedHandler != null) {
-                this.finishedHandler.handle(event);
-            }
+            finishResizing(event);
             event.consume();
         }
     }
@@ -125,8 +380,8 @@ abstract class AbstractResizer {
         if (this.disabled.get()) {
             return;
         }
-        var cursor = resolveCursorAndHelper(event, false);
-        if (cursor != null || this.helper != null) {
+        var cursor = resolveCursor(resolveEdges(event.getX(), event.getY(), getMargin()));
+        if (cursor != null || this.edges != 0) {
             if (cursor != null) {
                 setCursor(cursor);
                 this.cursorReplaced = true;
@@ -142,151 +397,392 @@ abstract class AbstractResizer {
     }
 
     protected void mouseDragged(MouseEvent event) {
-        if (this.helper != null) {
-            this.helper.accept(event);
+        if (this.edges != 0 && !isTouchResizing()) {
+            resize(getMouseX(event), getMouseY(event));
             event.consume();
         }
     }
 
     protected void mousePressed(MouseEvent event) {
-        if (this.disabled.get()) {
+        if (this.disabled.get() || isTouchResizing()) {
+            return;
+        }
+        var resolvedEdges = resolveEdges(event.getX(), event.getY(), getMargin());
+        if (resolvedEdges == 0) {
+            return;
+        }
+        startResizing(event, resolvedEdges, getMouseX(event), getMouseY(event));
+    }
+
+    /**
+     * Starts resizing of the given edges, it is used when the edges are known, for example, by the node that got the
+     * event.
+     */
+    protected void mousePressed(MouseEvent event, int edges) {
+        if (this.disabled.get() || isTouchResizing()) {
+            return;
+        }
+        //the cursor of the scene is used, so the cursor is kept when the mouse leaves the node
+        setCursor(resolveCursor(edges));
+        this.cursorReplaced = true;
+        startResizing(event, edges, getMouseX(event), getMouseY(event));
+    }
+
+    /**
+     * Starts resizing if a single touch is pressed in the resizing zone, the zone is wider than for the mouse.
+     */
+    protected void touchPressed(TouchEvent event) {
+        if (this.disabled.get() || this.edges != 0 || event.getTouchCount() != 1) {
             return;
         }
-        var cursor = resolveCursorAndHelper(event, true);
-        if (cursor == null) {
+        var point = event.getTouchPoint();
+        var resolvedEdges = resolveEdges(point.getX(), point.getY(), Math.max(getMargin(), TOUCH_MARGIN));
+        if (resolvedEdges == 0) {
             return;
         }
-        this.pressedMouseX = getMouseX(event);
-        this.pressedMouseY = getMouseY(event);
+        this.touchId = point.getId();
+        startResizing(event, resolvedEdges, point.getScreenX(), point.getScreenY());
+    }
+
+    /**
+     * Keeps the position of the touch, the bounds are changed once in the next pulse however many touch events come.
+     */
+    protected void touchMoved(TouchEvent event) {
+        var point = event.getTouchPoint();
+        if (!isTouchResizing() || point.getId() != this.touchId) {
+            return;
+        }
+        requestCommit(point.getScreenX(), point.getScreenY());
+        event.consume();
+    }
+
+    protected void touchReleased(TouchEvent event) {
+        var point = event.getTouchPoint();
+        if (!isTouchResizing() || point.getId() != this.touchId) {
+            return;
+        }
+        commit();
+        this.touchId = -1;
+        finishResizing(event);
+        event.consume();
+    }
+
+    protected void zoomStarted(ZoomEvent event) {
+        if (!this.pinchEnabled || this.disabled.get() || this.edges != 0 || this.zooming) {
+            return;
+        }
+        this.zooming = true;
+        startResizing(event, NORTH | SOUTH | WEST | EAST, 0, 0);
+    }
+
+    protected void zoom(ZoomEvent event) {
+        if (this.zooming) {
+            requestCommit(event.getTotalZoomFactor(), 0);
+            event.consume();
+        }
+    }
+
+    protected void zoomFinished(ZoomEvent event) {
+        if (this.zooming) {
+            commit();
+            this.zooming = false;
+            finishResizing(event);
+            event.consume();
+        }
+    }
+
+    /**
+     * Returns true if the component is being resized by a touch or pinch. The mouse events are ignored then.
+     */
+    boolean isTouchResizing() {
+        return this.touchId != -1 || this.zooming;
+    }
+
+    /**
+     * Finishes resizing without an input event. It is used when the component is hidden during resizing, so the
+     * release never comes.
+     */
+    void cancelResizing() {
+        if (this.edges == 0) {
+            return;
+        }
+        this.commitPending = false;
+        this.touchId = -1;
+        this.zooming = false;
+        if (this.cursorReplaced) {
+            setCursor(Cursor.DEFAULT);
+            this.cursorReplaced = false;
+        }
+        finishResizing(null);
+    }
+
+    /**
+     * Returns true if the mouse event is synthesized from a touch that is handled by the resizer. Such events come
+     * late and duplicate the touch events, so they are ignored, and while a touch resizes the component they are
+     * consumed.
+     */
+    boolean checkSynthesized(MouseEvent event) {
+        if (!isTouchSupported() || !event.isSynthesized()) {
+            return false;
+        }
+        if (isTouchResizing()) {
+            event.consume();
+        }
+        return true;
+    }
+
+    private <T extends Event> void setFilter(EventType<T> type, EventHandler<? super T> filter, boolean enabled) {
+        if (enabled) {
+            addEventFilter(type, filter);
+        } else {
+            removeEventFilter(type, filter);
+        }
+    }
+
+    private void startResizing(InputEvent event, int edges, double pointerX, double pointerY) {
+        this.edges = edges;
+        this.pressedMouseX = pointerX;
+        this.pressedMouseY = pointerY;
         this.pressedHeight = getHeight();
         this.pressedWidth = getWidth();
         this.pressedX = getX();
         this.pressedY = getY();
+        IdleTaskScheduler.getDefault().interactionStarted(this);
         if (this.startedHandler != null) {
             this.startedHandler.handle(event);
         }
         event.consume();
     }
 
+    private void finishResizing(InputEvent event) {
+        this.edges = 0;
+        if (this.finishedHandler != null) {
+            this.finishedHandler.handle(event);
+        }
+        IdleTaskScheduler.getDefault().interactionFinished(this);
+    }
+
+    private void requestCommit(double x, double y) {
+        this.pendingX = x;
+        this.pendingY = y;
+        if (!this.commitPending) {
+            this.commitPending = true;
+            PulseBatch.run(() -> commit());
+        }
+    }
+
+    private void commit() {
+        if (!this.commitPending || this.edges == 0) {
+            return;
+        }
+        this.commitPending = false;
+        if (this.zooming) {
+            scale(this.pendingX);
+        } else {
+            resize(this.pendingX, this.pendingY);
+        }
+    }
+
     /**
-     * Returns cursor or null if mouse outside dragging zone.
-     *
-     * @param event
-     * @return
+     * Returns the edges under the pointer or 0 if the pointer is outside the resizing zone.
      */
-    private Cursor resolveCursorAndHelper(MouseEvent event, boolean setHelper) {
-        //when shadow is added, then mouse events are fired on this shadow
-        if ((event.getX() < 0 || event.getX() > getWidth()) || (event.getY() < 0 || event.getY() > getHeight())) {
-            return null;
+    private int resolveEdges(double x, double y, double margin) {
+        //when shadow is added, then mouse events are fired on this shadow, so the insets are a part of the zone
+        if ((x < 0 || x > getWidth()) || (y < 0 || y > getHeight())) {
+            return 0;
+        }
+        var result = 0;
+        if (y <= this.insets.getTop() + margin) {
+            result |= NORTH;
+        } else if (y >= (getHeight() - this.insets.getBottom() - margin)) {
+            result |= SOUTH;
         }
+        if (x <= this.insets.getLeft() + margin) {
+            result |= WEST;
+        } else if (x >= (getWidth() - this.insets.getRight() - margin)) {
+            result |= EAST;
+        }
+        return result;
+    }
 
-        if (event.getY() <= getMargin()) {
-            if (event.getX() <= getMargin()) {
-                if (setHelper) {
-                    this.helper = (e) -> {
-                        this.resizeNorth(e);
-                        this.resizeWest(e);
-                    };
-                }
+    static Cursor resolveCursor(int edges) {
+        switch (edges) {
+            case NORTH | WEST:
                 return Cursor.NW_RESIZE;
-            } else if (event.getX() >= (getWidth() - getMargin())) {
-                if (setHelper) {
-                    this.helper = (e) -> {
-                        this.resizeNorth(e);
-                        this.resizeEast(e);
-                    };
-                }
+            case NORTH | EAST:
                 return Cursor.NE_RESIZE;
-            }
-            if (setHelper) {
-                this.helper = (e) -> {
-                    this.resizeNorth(e);
-                };
-            }
-            return Cursor.N_RESIZE;
-        } else if (event.getY() >= (getHeight() - getMargin())) {
-            if (event.getX() <= getMargin()) {
-                if (setHelper) {
-                    this.helper = (e) -> {
-                        this.resizeSouth(e);
-                        this.resizeWest(e);
-                    };
-                }
+            case NORTH:
+                return Cursor.N_RESIZE;
+            case SOUTH | WEST:
                 return Cursor.SW_RESIZE;
-            } else if (event.getX() >= (getWidth() - getMargin())) {
-                if (setHelper) {
-                    this.helper = (e) -> {
-                        this.resizeSouth(e);
-                        this.resizeEast(e);
-                    };
-                }
+            case SOUTH | EAST:
                 return Cursor.SE_RESIZE;
+            case SOUTH:
+                return Cursor.S_RESIZE;
+            case WEST:
+                return Cursor.W_RESIZE;
+            case EAST:
+                return Cursor.E_RESIZE;
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Computes new bounds for all the resized edges at once and then sets only the changed values. The order is:
+     * edge snapping, aspect ratio, steps, min/max size and device pixels, so every committed change is final.
+     */
+    private void resize(double pointerX, double pointerY) {
+        var diffX = pointerX - this.pressedMouseX;
+        var diffY = pointerY - this.pressedMouseY;
+        //the edges of the visible part are snapped, the insets are added back after snapping
+        var left = this.pressedX + this.insets.getLeft();
+        var right = this.pressedX + this.pressedWidth - this.insets.getRight();
+        var top = this.pressedY + this.insets.getTop();
+        var bottom = this.pressedY + this.pressedHeight - this.insets.getBottom();
+        if ((this.edges & EAST) != 0) {
+            right = snapVertical(right + diffX, top, bottom);
+        } else if ((this.edges & WEST) != 0) {
+            left = snapVertical(left + diffX, top, bottom);
+        }
+        if ((this.edges & SOUTH) != 0) {
+            bottom = snapHorizontal(bottom + diffY, left, right);
+        } else if ((this.edges & NORTH) != 0) {
+            top = snapHorizontal(top + diffY, left, right);
+        }
+        left -= this.insets.getLeft();
+        right += this.insets.getRight();
+        top -= this.insets.getTop();
+        bottom += this.insets.getBottom();
+        var width = right - left;
+        var height = bottom - top;
+        if (this.aspectRatio > 0) {
+            var horizontal = (this.edges & (WEST | EAST)) != 0;
+            var vertical = (this.edges & (NORTH | SOUTH)) != 0;
+            //in a corner the dimension that is changed more drives the other one
+            if (horizontal && (!vertical || Math.abs(width / this.pressedWidth - 1)
+                    >= Math.abs(height / this.pressedHeight - 1))) {
+                height = width / this.aspectRatio;
+            } else {
+                width = height * this.aspectRatio;
             }
-            if (setHelper) {
-                this.helper = (e) -> {
-                    this.resizeSouth(e);
-                };
-            }
-            return Cursor.S_RESIZE;
         }
-        if (event.getX() <= getMargin()) {
-            if (setHelper) {
-                this.helper = (e) -> {
-                    this.resizeWest(e);
-                };
+        width = clamp(step(width, this.pressedWidth, this.widthStep), resolveMinWidth(), resolveMaxWidth());
+        height = clamp(step(height, this.pressedHeight, this.heightStep), resolveMinHeight(), resolveMaxHeight());
+        if (this.aspectRatio > 0) {
+            //the limits could break the ratio, so the smaller size wins
+            if (width / height > this.aspectRatio) {
+                width = height * this.aspectRatio;
+            } else {
+                height = width / this.aspectRatio;
             }
-            return Cursor.W_RESIZE;
-        } else if (event.getX() >= getWidth() - getMargin()) {
-            if (setHelper) {
-                    this.helper = (e) -> {
-                    this.resizeEast(e);
-                };
+        }
+        //the opposite edge doesn't move
+        var x = (this.edges & WEST) != 0 ? right - width : left;
+        var y = (this.edges & NORTH) != 0 ? bottom - height : top;
+        setBounds(x, y, width, height);
+    }
+
+    /**
+     * Scales the size at the start of resizing by the factor around the center, the steps and limits are applied in
+     * the same way as for the edges.
+     */
+    private void scale(double factor) {
+        var width = clamp(step(this.pressedWidth * factor, this.pressedWidth, this.widthStep), resolveMinWidth(),
+                resolveMaxWidth());
+        var height = clamp(step(this.pressedHeight * factor, this.pressedHeight, this.heightStep),
+                resolveMinHeight(), resolveMaxHeight());
+        if (this.aspectRatio > 0) {
+            if (width / height > this.aspectRatio) {
+                width = height * this.aspectRatio;
+            } else {
+                height = width / this.aspectRatio;
             }
-            return Cursor.E_RESIZE;
         }
-        return null;
+        var x = this.pressedX + (this.pressedWidth - width) / 2;
+        var y = this.pressedY + (this.pressedHeight - height) / 2;
+        setBounds(x, y, width, height);
     }
 
-    private void resizeNorth(MouseEvent e) {
-        double mouseY = getMouseY(e);
-        var diff = this.pressedMouseY - mouseY;
-        double newHeight = this.pressedHeight + diff;
-        if (newHeight >= this.minHeight.get() && newHeight <= resolveMaxHeight()) {
-            //at the same time we need to update y position of the region
-            var newY = this.pressedY - diff;
-            setHeight(newHeight);
-            setY(newY);
+    /**
+     * Snaps the bounds to device pixels and sets only the changed values.
+     */
+    private void setBounds(double x, double y, double width, double height) {
+        //fractional bounds are rounded by the window manager and cause one more layout pass, so they are snapped
+        var scaleX = getOutputScaleX();
+        var scaleY = getOutputScaleY();
+        var snappedX = snapToPixel(x, scaleX);
+        var snappedY = snapToPixel(y, scaleY);
+        width = snapToPixel(x + width, scaleX) - snappedX;
+        height = snapToPixel(y + height, scaleY) - snappedY;
+        x = snappedX;
+        y = snappedY;
+        var changed = false;
+        if (width != getWidth()) {
+            setWidth(width);
+            changed = true;
+        }
+        if (height != getHeight()) {
+            setHeight(height);
+            changed = true;
+        }
+        if (x != getX()) {
+            setX(x);
+            changed = true;
+        }
+        if (y != getY()) {
+            setY(y);
+            changed = true;
+        }
+        if (changed && this.resizedHandler != null) {
+            this.resizedHandler.run();
         }
     }
 
-    private void resizeEast(MouseEvent e) {
-        double mouseX = getMouseX(e);
-        var diff = mouseX - this.pressedMouseX;
-        double newWidth = this.pressedWidth + diff;
-        if (newWidth >= this.minWidth.get() && newWidth <= resolveMaxWidth()) {
-            setWidth(newWidth);
+    private double step(double size, double base, double step) {
+        if (step <= 0) {
+            return size;
         }
+        return base + Math.round((size - base) / step) * step;
     }
 
-    private void resizeSouth(MouseEvent e) {
-        double mouseY = getMouseY(e);
-        var diff = mouseY - this.pressedMouseY;
-        double newHeight = this.pressedHeight + diff;
-        if (newHeight >= this.minHeight.get() && newHeight <= resolveMaxHeight()) {
-            setHeight(newHeight);
+    private double snapToPixel(double value, double scale) {
+        if (scale <= 0) {
+            return value;
         }
+        return Math.round(value * scale) / scale;
     }
 
-    private void resizeWest(MouseEvent e) {
-        double mouseX = getMouseX(e);
-        var diff = this.pressedMouseX - mouseX;
-        double newWidth = this.pressedWidth + diff;
-        if (newWidth >= this.minWidth.get() && newWidth <= resolveMaxWidth()) {
-            //at the same time we need to update x position of the region
-            var newX = this.pressedX - diff;
-            setWidth(newWidth);
-            setX(newX);
+    private double snapVertical(double position, double spanMin, double spanMax) {
+        if (this.verticalEdgeSnapper == null) {
+            return position;
         }
+        return this.verticalEdgeSnapper.snap(position, spanMin, spanMax);
+    }
+
+    private double snapHorizontal(double position, double spanMin, double spanMax) {
+        if (this.horizontalEdgeSnapper == null) {
+            return position;
+        }
+        return this.horizontalEdgeSnapper.snap(position, spanMin, spanMax);
+    }
+
+    private double clamp(double value, double min, double max) {
+        return Math.max(min, Math.min(max, value));
+    }
+
+    /**
+     * Returns the min width, if the property is negative (for example, the computed size of a region is used), the
+     * computed min width is returned.
+     */
+    private double resolveMinWidth() {
+        var value = this.minWidth.get();
+        return value >= 0 ? value : Math.max(0, getComputedMinWidth());
+    }
+
+    private double resolveMinHeight() {
+        var value = this.minHeight.get();
+        return value >= 0 ? value : Math.max(0, getComputedMinHeight());
     }
 
     private double resolveMaxWidth() {
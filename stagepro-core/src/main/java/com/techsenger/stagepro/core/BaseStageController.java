@@ -16,28 +16,51 @@
 
 package com.techsenger.stagepro.core;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Supplier;
+import javafx.animation.Animation;
+import javafx.animation.Interpolator;
 import javafx.animation.KeyFrame;
 import javafx.animation.Timeline;
+import javafx.application.ConditionalFeature;
+import javafx.application.Platform;
 import javafx.beans.property.BooleanProperty;
+import javafx.beans.property.DoubleProperty;
 import javafx.beans.property.ObjectProperty;
+import javafx.beans.property.ReadOnlyBooleanProperty;
+import javafx.beans.property.ReadOnlyBooleanWrapper;
 import javafx.beans.property.SimpleBooleanProperty;
+import javafx.beans.property.SimpleDoubleProperty;
 import javafx.beans.property.SimpleObjectProperty;
+import javafx.beans.value.ChangeListener;
 import javafx.css.PseudoClass;
+import javafx.geometry.Insets;
+import javafx.geometry.Pos;
 import javafx.geometry.Rectangle2D;
 import javafx.scene.Node;
 import javafx.scene.Scene;
+import javafx.scene.SnapshotParameters;
 import javafx.scene.control.Label;
-import javafx.scene.input.MouseEvent;
+import javafx.scene.image.ImageView;
+import javafx.scene.input.InputEvent;
+import javafx.scene.input.TouchEvent;
 import javafx.scene.layout.AnchorPane;
+import javafx.scene.layout.Border;
 import javafx.scene.layout.HBox;
 import javafx.scene.layout.Priority;
 import javafx.scene.layout.Region;
-import javafx.scene.layout.StackPane;
 import javafx.scene.layout.VBox;
 import javafx.scene.paint.Color;
+import javafx.scene.transform.Transform;
 import javafx.stage.Screen;
 import javafx.stage.Stage;
 import javafx.stage.StageStyle;
+import javafx.stage.WindowEvent;
 import javafx.util.Duration;
 
 /**
@@ -47,23 +70,146 @@ import javafx.util.Duration;
  */
 public class BaseStageController {
 
+    /**
+     * Defines what happens with the content of the stage while the stage is iconified.
+     */
+    public enum IconifiedContentPolicy {
+
+        /**
+         * The content stays in the scene graph and keeps getting CSS, layout and animation pulses.
+         */
+        KEEP_ATTACHED,
+
+        /**
+         * The content is removed from the scene graph and the suspendables are suspended. When the stage is restored
+         * the content is added back.
+         */
+        DETACH,
+
+        /**
+         * The same as {@link #DETACH} but the snapshot of the content is taken before detaching it and it is shown
+         * over the content until the first frame of the restored content is rendered.
+         */
+        DETACH_WITH_SNAPSHOT
+    }
+
+    /**
+     * Defines the style of the native window of the stage.
+     */
+    public enum RenderingMode {
+
+        /**
+         * The window is per-pixel transparent, so rounded corners and the shadow are supported. With the hardware
+         * pipeline this mode is the fastest one.
+         */
+        TRANSPARENT,
+
+        /**
+         * The window is opaque and undecorated, the corners are square and there is no shadow. With the software
+         * pipeline and some Linux compositors this mode is faster than {@link #TRANSPARENT}.
+         */
+        UNDECORATED,
+
+        /**
+         * {@link #TRANSPARENT} if transparent windows are supported and the hardware pipeline is used, otherwise
+         * {@link #UNDECORATED}.
+         */
+        AUTO
+    }
+
+    /**
+     * Defines how the mouse events for resizing reach the resizer.
+     */
+    public enum ResizeMode {
+
+        /**
+         * The resizer uses the event filters of the stage, so every mouse event of the stage is checked by it.
+         */
+        STAGE_FILTERS,
+
+        /**
+         * The resizer gets only the mouse events of thin regions over the edges and corners of the stage, the mouse
+         * events of the content never reach it. Touches and pinches are still handled by the event filters of the
+         * stage, because the regions are too thin for a finger. The regions are laid out by the StagePro root of the
+         * scene, so the root of the scene must not be replaced, and while the resizer is disabled they are hidden.
+         */
+        EDGE_REGIONS
+    }
+
     private static final PseudoClass maximizedClass = PseudoClass.getPseudoClass("maximized");
 
+    private static final Color DEFAULT_SIZE_EFFECT_COLOR = Color.web("#00000020");
+
+    private static final double DEFAULT_SNAPPING_DISTANCE = 10;
+
+    private static final Color DEFAULT_SHADOW_COLOR = Color.web("#00000050");
+
+    private static int idCounter = 0;
+
+    private static RenderingMode defaultRenderingMode = RenderingMode.TRANSPARENT;
+
+    /**
+     * Returns the rendering mode that is used by all new controllers.
+     */
+    public static RenderingMode getDefaultRenderingMode() {
+        return defaultRenderingMode;
+    }
+
+    public static void setDefaultRenderingMode(RenderingMode mode) {
+        defaultRenderingMode = mode;
+    }
+
+    /**
+     * Returns the style of the window for the rendering mode. The software pipeline is detected by 3D support that is
+     * provided only by the hardware pipelines.
+     */
+    private static StageStyle resolveStageStyle(RenderingMode mode) {
+        switch (mode) {
+            case UNDECORATED:
+                return StageStyle.UNDECORATED;
+            case AUTO:
+                if (Platform.isSupported(ConditionalFeature.TRANSPARENT_WINDOW)
+                        && Platform.isSupported(ConditionalFeature.SCENE3D)) {
+                    return StageStyle.TRANSPARENT;
+                } else {
+                    return StageStyle.UNDECORATED;
+                }
+            default:
+                return StageStyle.TRANSPARENT;
+        }
+    }
+
+    private String id = "stage-" + ++idCounter;
+
     private final Stage stage;
 
     private final double width;
 
     private final double height;
 
-    private final HBox titleBar = new HBox();
-
-    private final HBox buttonBox = new HBox();
+    private final TitleBar titleBar = new TitleBar();
 
     private final VBox contentArea = new VBox();
 
     private final VBox stageBox = new VBox(titleBar, contentArea);
 
-    private final ObjectProperty<Node> content = new SimpleObjectProperty<>();
+    /**
+     * True when the stage is maximized by the OS or virtually.
+     */
+    private final ReadOnlyBooleanWrapper maximized = new ReadOnlyBooleanWrapper(false) {
+
+        @Override
+        protected void invalidated() {
+            checkMaximizedPseudoClass(get());
+            updateShadow();
+        }
+    };
+
+    /**
+     * Properties are created only when they are requested or get non default values, because there can be hundreds
+     * of stages.
+     */
+    private ObjectProperty<Node> content;
 
     private double pressedX;
 
@@ -73,97 +219,850 @@ public class BaseStageController {
 
     private double pressedMouseY;
 
-    private final BooleanProperty darkTheme = new SimpleBooleanProperty();
+    private BooleanProperty darkTheme;
+
+    /**
+     * The theme tokens of this stage, they override the palette of the registry.
+     */
+    private Map<ThemeToken, Color> themePalette;
+
+    /**
+     * The theme tokens that are appended to the inline style of the stage box, the style of the application is kept.
+     */
+    private String themeStyle = "";
+
+    /**
+     * Adds the tokens again when the application replaces the inline style, it is created with the first tokens.
+     */
+    private ChangeListener<String> stageBoxStyleListener;
 
     private StageResizer resizer;
 
+    private RenderingMode renderingMode;
+
+    private ResizeMode resizeMode = ResizeMode.STAGE_FILTERS;
+
     /**
      * Indicates if the size effect is enabled. This effect is shown when the window is dragged
      * to the topmost position of the screen.
      */
-    private BooleanProperty sizeEffectEnabled = new SimpleBooleanProperty(false);
+    private BooleanProperty sizeEffectEnabled;
+
+    private ObjectProperty<Color> sizeEffectColor;
+
+    /**
+     * Indicates if the stage is snapped to the halves, quarters etc. of the screen when it is dragged to the edges of
+     * the screen, see {@link SnapZones}.
+     */
+    private BooleanProperty snapZonesEnabled;
+
+    /**
+     * Indicates if the edges of the stage stick to the edges of the screens and other StagePro stages when the
+     * stage is moved or resized.
+     */
+    private BooleanProperty snappingEnabled;
+
+    /**
+     * The max distance between two edges at which they stick together.
+     */
+    private DoubleProperty snappingDistance;
+
+    private SatelliteGroup satelliteGroup;
+
+    /**
+     * The radius of the stage shadow, 0 means no shadow. The shadow is supported only for transparent stages and it
+     * is drawn inside the bounds of the stage.
+     */
+    private DoubleProperty shadowRadius;
+
+    private ObjectProperty<Color> shadowColor;
+
+    /**
+     * The root of the scene, it is created only when it is required (for example, for the shadow).
+     */
+    private StageRoot stageRoot;
+
+    /**
+     * The deprecated button box, it is created only when it is requested.
+     */
+    private HBox buttonBox;
+
+    /**
+     * The work of the content that is suspended while the stage is moved or resized.
+     */
+    private List<Suspendable> suspendables;
+
+    /**
+     * The number of the current suspensions (moving, resizing), the suspendables are resumed when it becomes 0.
+     */
+    private int suspensionCount = 0;
+
+    /**
+     * The cache of the keyed content that is not shown at the moment, it is created when the first keyed content is
+     * set.
+     */
+    private ContentCache contentCache;
+
+    private int contentCacheSize = 5;
+
+    private int contentCacheMaxWeight = 0;
+
+    private Object contentKey;
+
+    private Node keyedContent;
+
+    private ObjectProperty<IconifiedContentPolicy> iconifiedContentPolicy;
+
+    /**
+     * The node of the content area that was detached when the stage was iconified.
+     */
+    private Node detachedNode;
+
+    private ImageView snapshotView;
+
+    /**
+     * True when the stage is being moved by the title bar.
+     */
+    private boolean moving = false;
+
+    /**
+     * The id of the touch point that moves the stage by the title bar, -1 if there is no such touch.
+     */
+    private int titleTouchId = -1;
+
+    /**
+     * The latest touch event of the title bar that is not committed yet, touches are committed once per pulse.
+     */
+    private TouchEvent pendingTouchEvent;
+
+    private double pendingTouchX;
+
+    private double pendingTouchY;
+
+    private boolean touchCommitPending = false;
+
+    private Stage effectStage;
+
+    private Region effectStageRegion;
+
+    private boolean maximizeOnRelease = false;
+
+    /**
+     * The snap zone under the mouse, its bounds are applied to the stage on release.
+     */
+    private SnapZones.Zone snapZoneOnRelease;
+
+    /**
+     * The timeline of the size effect, it is created when the effect is shown for the first time.
+     */
+    private Timeline timeline;
+
+    /**
+     * The animator of the stage bounds, it is created when the bounds are animated for the first time.
+     */
+    private BoundsAnimator boundsAnimator;
+
+    private Duration boundsAnimationDuration = Duration.ZERO;
+
+    private boolean boundsSnapshotEnabled = false;
+
+    /**
+     * The snapshot of the content that is shown instead of the content while the bounds are animated.
+     */
+    private ImageView transitionView;
+
+    private boolean virtualMaximizeEnabled = false;
+
+    /**
+     * True when the stage covers the visual bounds of the screen without being maximized by the OS.
+     */
+    private boolean virtuallyMaximized = false;
+
+    /**
+     * The bounds of the stage before it was maximized with an animation or virtually.
+     */
+    private Rectangle2D restoreBounds;
+
+    /**
+     * The insets between the bounds of the stage and the stage box, they are not empty when the stage has a shadow.
+     */
+    private Insets shadowInsets = Insets.EMPTY;
+
+    /**
+     * Calling {@link Stage#initStyle(javafx.stage.StageStyle)} on a visible stage will throw an
+     * {@link java.lang.IllegalStateException}: "Cannot set style once stage has been made visible."
+     *
+     * <p>Additionally, to remove a StagePro stage, it is necessary to call {@link Stage#hide()}.
+     * For this reason, adding a deinitialize method for the controller is unnecessary. If you need
+     * to remove this controller and use a standard JavaFX stage, simply create a new stage instance.
+     */
+    public BaseStageController(Stage stage, double width, double height) {
+        this.stage = stage;
+        this.width = width;
+        this.height = height;
+        build();
+        addListeners();
+        addHandlers();
+        StageProRegistry.getDefault().register(this);
+    }
+
+    /**
+     * Returns the id of the controller that is used by {@link StageProRegistry}. By default the id is generated.
+     */
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * Sets the id of the controller.
+     *
+     * @throws IllegalArgumentException if the id is used by another showing StagePro stage.
+     */
+    public void setId(String id) {
+        Objects.requireNonNull(id, "Id can't be null");
+        var other = StageProRegistry.getDefault().getById(id);
+        if (other != null && other != this) {
+            throw new IllegalArgumentException("Id " + id + " is already used by another stage");
+        }
+        var oldId = this.id;
+        this.id = id;
+        StageProRegistry.getDefault().updateId(this, oldId);
+    }
+
+    public ObjectProperty<Node> contentProperty() {
+        if (this.content == null) {
+            this.content = new SimpleObjectProperty<>() {
+
+                @Override
+                protected void invalidated() {
+                    onContentChanged(get());
+                }
+            };
+        }
+        return content;
+    }
+
+    public Node getContent() {
+        return this.content == null ? null : this.content.get();
+    }
+
+    public void setContent(Node content) {
+        if (this.content != null || content != null) {
+            contentProperty().set(content);
+        }
+    }
+
+    /**
+     * Sets the content that is identified by the key. If the content with this key was shown recently, it is taken
+     * from the cache with its state, skins and styles, otherwise it is created by the factory. The current keyed
+     * content is put into the cache.
+     */
+    public void setContent(Object key, Supplier<? extends Node> factory) {
+        if (this.keyedContent != null && getContent() == this.keyedContent && Objects.equals(key, this.contentKey)) {
+            return;
+        }
+        if (this.contentCache == null) {
+            this.contentCache = new ContentCache(this.contentCacheSize, this.contentCacheMaxWeight);
+        }
+        if (this.keyedContent != null && getContent() == this.keyedContent) {
+            this.contentCache.put(this.contentKey, this.keyedContent);
+        }
+        var node = this.contentCache.take(key);
+        if (node == null) {
+            node = factory.get();
+        }
+        this.contentKey = key;
+        this.keyedContent = node;
+        setContent(node);
+    }
+
+    /**
+     * Removes the content with the given key from the content cache.
+     */
+    public void invalidateContent(Object key) {
+        if (this.contentCache != null) {
+            this.contentCache.remove(key);
+        }
+    }
+
+    public void clearContentCache() {
+        if (this.contentCache != null) {
+            this.contentCache.clear();
+        }
+    }
+
+    public int getContentCacheSize() {
+        return contentCacheSize;
+    }
+
+    /**
+     * Sets the max number of the cached content nodes, 0 disables the cache. The default value is 5.
+     */
+    public void setContentCacheSize(int size) {
+        this.contentCacheSize = size;
+        if (this.contentCache != null) {
+            this.contentCache.setMaxSize(size);
+        }
+    }
+
+    public int getContentCacheMaxWeight() {
+        return contentCacheMaxWeight;
+    }
+
+    /**
+     * Sets the max total number of the nodes in all cached content trees, 0 means no limit. The default value is 0.
+     */
+    public void setContentCacheMaxWeight(int weight) {
+        this.contentCacheMaxWeight = weight;
+        if (this.contentCache != null) {
+            this.contentCache.setMaxWeight(weight);
+        }
+    }
+
+    public BooleanProperty darkThemeProperty() {
+        if (this.darkTheme == null) {
+            this.darkTheme = new SimpleBooleanProperty() {
+
+                @Override
+                protected void invalidated() {
+                    StageChrome.setDarkTheme(stageBox, get());
+                }
+            };
+        }
+        return darkTheme;
+    }
+
+    public boolean isDarkTheme() {
+        return this.darkTheme == null ? false : this.darkTheme.get();
+    }
+
+    public void setDarkTheme(boolean dark) {
+        if (this.darkTheme != null || dark) {
+            darkThemeProperty().set(dark);
+        }
+    }
+
+    /**
+     * Returns the color of the theme token of this stage or null if the token is not set for this stage.
+     */
+    public Color getThemeToken(ThemeToken token) {
+        return this.themePalette == null ? null : this.themePalette.get(token);
+    }
+
+    /**
+     * Sets the color of the theme token for this stage, null removes the token. The color of this stage overrides
+     * the one of {@link StageProRegistry} and the one of the stylesheet. The change is one inline style update of the
+     * stage box.
+     */
+    public void setThemeToken(ThemeToken token, Color color) {
+        if (color == null) {
+            if (this.themePalette == null || this.themePalette.remove(token) == null) {
+                return;
+            }
+        } else {
+            if (this.themePalette == null) {
+                this.themePalette = new EnumMap<>(ThemeToken.class);
+            }
+            this.themePalette.put(token, color);
+        }
+        updateThemeStyle();
+    }
+
+    /**
+     * Returns an unmodifiable view of the theme tokens of this stage.
+     */
+    public Map<ThemeToken, Color> getThemePalette() {
+        return this.themePalette == null ? Collections.emptyMap() : Collections.unmodifiableMap(this.themePalette);
+    }
+
+    /**
+     * Replaces all the theme tokens of this stage with the given ones in one style update.
+     */
+    public void setThemePalette(Map<ThemeToken, Color> palette) {
+        if (palette.isEmpty()) {
+            if (this.themePalette == null || this.themePalette.isEmpty()) {
+                return;
+            }
+            this.themePalette.clear();
+        } else {
+            if (this.themePalette == null) {
+                this.themePalette = new EnumMap<>(ThemeToken.class);
+            }
+            this.themePalette.clear();
+            this.themePalette.putAll(palette);
+        }
+        updateThemeStyle();
+    }
+
+    public BooleanProperty sizeEffectEnabledProperty() {
+        if (this.sizeEffectEnabled == null) {
+            this.sizeEffectEnabled = new SimpleBooleanProperty(false);
+        }
+        return sizeEffectEnabled;
+    }
+
+    public boolean isSizeEffectEnabled() {
+        return this.sizeEffectEnabled == null ? false : this.sizeEffectEnabled.get();
+    }
+
+    public void setSizeEffectEnabled(boolean enabled) {
+        if (this.sizeEffectEnabled != null || enabled) {
+            sizeEffectEnabledProperty().set(enabled);
+        }
+    }
+
+    public ObjectProperty<Color> sizeEffectColorProperty() {
+        if (this.sizeEffectColor == null) {
+            this.sizeEffectColor = new SimpleObjectProperty<>(DEFAULT_SIZE_EFFECT_COLOR);
+        }
+        return sizeEffectColor;
+    }
+
+    public Color getSizeEffectColor() {
+        return this.sizeEffectColor == null ? DEFAULT_SIZE_EFFECT_COLOR : this.sizeEffectColor.get();
+    }
+
+    public void setSizeEffectColor(Color color) {
+        if (this.sizeEffectColor != null || !DEFAULT_SIZE_EFFECT_COLOR.equals(color)) {
+            sizeEffectColorProperty().set(color);
+        }
+    }
+
+    public BooleanProperty snapZonesEnabledProperty() {
+        if (this.snapZonesEnabled == null) {
+            this.snapZonesEnabled = new SimpleBooleanProperty(false);
+        }
+        return snapZonesEnabled;
+    }
+
+    public boolean isSnapZonesEnabled() {
+        return this.snapZonesEnabled == null ? false : this.snapZonesEnabled.get();
+    }
+
+    public void setSnapZonesEnabled(boolean enabled) {
+        if (this.snapZonesEnabled != null || enabled) {
+            snapZonesEnabledProperty().set(enabled);
+        }
+    }
+
+    public BooleanProperty snappingEnabledProperty() {
+        if (this.snappingEnabled == null) {
+            this.snappingEnabled = new SimpleBooleanProperty(false);
+        }
+        return snappingEnabled;
+    }
+
+    public boolean isSnappingEnabled() {
+        return this.snappingEnabled == null ? false : this.snappingEnabled.get();
+    }
+
+    public void setSnappingEnabled(boolean enabled) {
+        if (this.snappingEnabled != null || enabled) {
+            snappingEnabledProperty().set(enabled);
+        }
+    }
+
+    public DoubleProperty snappingDistanceProperty() {
+        if (this.snappingDistance == null) {
+            this.snappingDistance = new SimpleDoubleProperty(DEFAULT_SNAPPING_DISTANCE);
+        }
+        return snappingDistance;
+    }
+
+    public double getSnappingDistance() {
+        return this.snappingDistance == null ? DEFAULT_SNAPPING_DISTANCE : this.snappingDistance.get();
+    }
+
+    public void setSnappingDistance(double distance) {
+        if (this.snappingDistance != null || distance != DEFAULT_SNAPPING_DISTANCE) {
+            snappingDistanceProperty().set(distance);
+        }
+    }
+
+    /**
+     * Attaches the stage (a tool palette, an inspector etc.) to this stage. The attached stage follows this stage
+     * when it is moved, resized, maximized and minimized, its current position relative to the anchor point of
+     * this stage is kept. When the user moves the attached stage, its new position is kept.
+     */
+    public void attachStage(Stage satellite, Pos anchor) {
+        resolveSatelliteGroup().attach(satellite, anchor);
+    }
+
+    /**
+     * Attaches the stage to this stage with the given offset from the anchor point of this stage.
+     */
+    public void attachStage(Stage satellite, Pos anchor, double offsetX, double offsetY) {
+        resolveSatelliteGroup().attach(satellite, anchor, offsetX, offsetY);
+    }
+
+    public void detachStage(Stage satellite) {
+        if (this.satelliteGroup != null) {
+            this.satelliteGroup.detach(satellite);
+        }
+    }
+
+    public List<Stage> getAttachedStages() {
+        if (this.satelliteGroup == null) {
+            return List.of();
+        }
+        return this.satelliteGroup.getStages();
+    }
+
+    public DoubleProperty shadowRadiusProperty() {
+        if (this.shadowRadius == null) {
+            this.shadowRadius = new SimpleDoubleProperty(0) {
+
+                @Override
+                protected void invalidated() {
+                    updateShadow();
+                }
+            };
+        }
+        return shadowRadius;
+    }
+
+    public double getShadowRadius() {
+        return this.shadowRadius == null ? 0 : this.shadowRadius.get();
+    }
+
+    public void setShadowRadius(double radius) {
+        if (this.shadowRadius != null || radius != 0) {
+            shadowRadiusProperty().set(radius);
+        }
+    }
+
+    public ObjectProperty<Color> shadowColorProperty() {
+        if (this.shadowColor == null) {
+            this.shadowColor = new SimpleObjectProperty<>(DEFAULT_SHADOW_COLOR) {
+
+                @Override
+                protected void invalidated() {
+                    updateShadow();
+                }
+            };
+        }
+        return shadowColor;
+    }
+
+    public Color getShadowColor() {
+        return this.shadowColor == null ? DEFAULT_SHADOW_COLOR : this.shadowColor.get();
+    }
+
+    public void setShadowColor(Color color) {
+        if (this.shadowColor != null || !DEFAULT_SHADOW_COLOR.equals(color)) {
+            shadowColorProperty().set(color);
+        }
+    }
+
+    /**
+     * Adds the work of the content that will be suspended when the user starts moving or resizing the stage and
+     * resumed when the user finishes it.
+     */
+    public void addSuspendable(Suspendable suspendable) {
+        if (this.suspendables == null) {
+            this.suspendables = new ArrayList<>();
+        }
+        this.suspendables.add(suspendable);
+        if (this.suspensionCount > 0) {
+            suspendable.suspend();
+        }
+    }
+
+    public void removeSuspendable(Suspendable suspendable) {
+        if (this.suspendables != null && this.suspendables.remove(suspendable) && this.suspensionCount > 0) {
+            suspendable.resume();
+        }
+    }
+
+    public ObjectProperty<IconifiedContentPolicy> iconifiedContentPolicyProperty() {
+        if (this.iconifiedContentPolicy == null) {
+            this.iconifiedContentPolicy = new SimpleObjectProperty<>(IconifiedContentPolicy.KEEP_ATTACHED);
+        }
+        return iconifiedContentPolicy;
+    }
+
+    public IconifiedContentPolicy getIconifiedContentPolicy() {
+        return this.iconifiedContentPolicy == null ? IconifiedContentPolicy.KEEP_ATTACHED
+                : this.iconifiedContentPolicy.get();
+    }
+
+    public void setIconifiedContentPolicy(IconifiedContentPolicy policy) {
+        if (this.iconifiedContentPolicy != null || policy != IconifiedContentPolicy.KEEP_ATTACHED) {
+            iconifiedContentPolicyProperty().set(policy);
+        }
+    }
+
+    public double getWidthResizeStep() {
+        return this.resizer.getWidthStep();
+    }
+
+    public double getHeightResizeStep() {
+        return this.resizer.getHeightStep();
+    }
+
+    /**
+     * Sets the steps of the stage size when the user resizes the stage (for example, the size of a character cell
+     * for terminal-like content), 0 means no step. The size changes only by whole steps from the size at the start of
+     * resizing.
+     */
+    public void setResizeSteps(double widthStep, double heightStep) {
+        this.resizer.setSizeSteps(widthStep, heightStep);
+    }
+
+    public double getAspectRatio() {
+        return this.resizer.getAspectRatio();
+    }
+
+    /**
+     * Sets the ratio of width to height that is kept when the user resizes the stage, 0 means no ratio.
+     */
+    public void setAspectRatio(double ratio) {
+        this.resizer.setAspectRatio(ratio);
+    }
+
+    public boolean isPinchResizeEnabled() {
+        return this.resizer.isPinchEnabled();
+    }
+
+    /**
+     * Sets if the stage can be resized by a pinch gesture around its center. The default value is false.
+     */
+    public void setPinchResizeEnabled(boolean enabled) {
+        this.resizer.setPinchEnabled(enabled);
+    }
 
-    private ObjectProperty<Color> sizeEffectColor = new SimpleObjectProperty<>(Color.web("#00000020"));
+    public ResizeMode getResizeMode() {
+        return resizeMode;
+    }
 
-    private Stage effectStage;
+    public void setResizeMode(ResizeMode mode) {
+        if (this.resizeMode == mode) {
+            return;
+        }
+        this.resizeMode = mode;
+        if (mode == ResizeMode.EDGE_REGIONS) {
+            //only the mouse filters are replaced by the regions
+            this.resizer.setMouseFiltersEnabled(false);
+            resolveStageRoot().setResizeRegions(new ResizeRegions(this.resizer));
+        } else {
+            this.resizer.setMouseFiltersEnabled(true);
+            if (this.stageRoot != null) {
+                this.stageRoot.setResizeRegions(null);
+            }
+        }
+    }
 
-    private Region effectStageRegion;
+    public ReadOnlyBooleanProperty maximizedProperty() {
+        return maximized.getReadOnlyProperty();
+    }
 
-    private boolean maximizeOnRelease = false;
+    /**
+     * Returns true if the stage is maximized by the OS or virtually.
+     */
+    public boolean isMaximized() {
+        return maximized.get();
+    }
 
-    private final Timeline timeline = new Timeline();
+    /**
+     * Maximizes the stage. If the bounds animation duration is not zero, the stage is animated to the visual bounds of
+     * its screen and then it is maximized (or just keeps these bounds when virtual maximize is enabled).
+     */
+    public void maximize() {
+        if (isMaximized() || this.stage.isIconified()) {
+            return;
+        }
+        var target = resolveScreen().getVisualBounds();
+        //when maximize is called again during the animation, the current bounds are not the real ones
+        var animating = this.boundsAnimator != null && this.boundsAnimator.isRunning();
+        if (this.virtualMaximizeEnabled) {
+            if (!animating || this.restoreBounds == null) {
+                this.restoreBounds = getBounds();
+            }
+            this.virtuallyMaximized = true;
+            updateMaximized();
+            animateBounds(target, this.boundsAnimationDuration, Interpolator.EASE_BOTH);
+        } else if (this.boundsAnimationDuration.lessThanOrEqualTo(Duration.ZERO)) {
+            this.restoreBounds = null;
+            this.stage.setMaximized(true);
+        } else {
+            //the OS will remember the animated bounds as the restored ones, so the real ones are kept here
+            if (!animating || this.restoreBounds == null) {
+                this.restoreBounds = getBounds();
+            }
+            animateBounds(target, this.boundsAnimationDuration, Interpolator.EASE_BOTH,
+                    () -> this.stage.setMaximized(true));
+        }
+    }
 
     /**
-     * Calling {@link Stage#initStyle(javafx.stage.StageStyle)} on a visible stage will throw an
-     * {@link java.lang.IllegalStateException}: "Cannot set style once stage has been made visible."
-     *
-     * <p>Additionally, to remove a StagePro stage, it is necessary to call {@link Stage#hide()}.
-     * For this reason, adding a deinitialize method for the controller is unnecessary. If you need
-     * to remove this controller and use a standard JavaFX stage, simply create a new stage instance.
+     * Restores the maximized stage. If the bounds animation duration is not zero, the stage is animated to its
+     * restored bounds. If the stage was maximized by the OS without the animation, the OS restores its bounds.
      */
-    public BaseStageController(Stage stage, double width, double height) {
-        this.stage = stage;
-        this.width = width;
-        this.height = height;
-        build();
-        addListeners();
-        addHandlers();
+    public void restore() {
+        if (!isMaximized()) {
+            return;
+        }
+        if (this.virtuallyMaximized) {
+            this.virtuallyMaximized = false;
+            updateMaximized();
+            if (this.restoreBounds != null) {
+                animateBounds(this.restoreBounds, this.boundsAnimationDuration, Interpolator.EASE_BOTH);
+                this.restoreBounds = null;
+            }
+        } else if (this.restoreBounds == null) {
+            //the OS knows the restored bounds, but on some platforms it applies them later, so the bounds can't be
+            //read and set here
+            this.stage.setMaximized(false);
+        } else {
+            //the restored bounds were kept by the animated maximize, the stage is restored and returned to the
+            //maximized bounds in the same pulse, and then it is animated to the restored bounds
+            var from = getBounds();
+            var target = this.restoreBounds;
+            this.restoreBounds = null;
+            this.stage.setMaximized(false);
+            if (this.boundsAnimationDuration.lessThanOrEqualTo(Duration.ZERO)) {
+                setBounds(target);
+            } else {
+                setBounds(from);
+                animateBounds(target, this.boundsAnimationDuration, Interpolator.EASE_BOTH);
+            }
+        }
     }
 
-    public ObjectProperty<Node> contentProperty() {
-        return content;
+    /**
+     * Appends the tokens of the palette of the registry and the palette of this stage to the inline style of the stage
+     * box. The inline style that is set by the application is kept.
+     */
+    void updateThemeStyle() {
+        var style = StageProRegistry.getDefault().createThemeStyle(this.themePalette);
+        if (style.equals(this.themeStyle)) {
+            return;
+        }
+        var applicationStyle = removeThemeStyle(this.stageBox.getStyle());
+        this.themeStyle = style;
+        if (this.stageBoxStyleListener == null && !style.isEmpty()) {
+            this.stageBoxStyleListener = (ov, oldV, newV) -> {
+                if (!this.themeStyle.isEmpty() && (newV == null || !newV.endsWith(this.themeStyle))) {
+                    this.stageBox.setStyle(appendThemeStyle(newV));
+                }
+            };
+            this.stageBox.styleProperty().addListener(this.stageBoxStyleListener);
+        }
+        this.stageBox.setStyle(appendThemeStyle(applicationStyle));
     }
 
-    public Node getContent() {
-        return this.content.get();
+    /**
+     * Restores the stage at once, without an animation. Used when the bounds of the stage are set by others.
+     */
+    void resetMaximized() {
+        if (this.boundsAnimator != null && this.boundsAnimator.isRunning()) {
+            this.boundsAnimator.stop();
+            endTransition();
+        }
+        this.virtuallyMaximized = false;
+        this.restoreBounds = null;
+        this.stage.setMaximized(false);
+        updateMaximized();
     }
 
-    public void setContent(Node content) {
-        this.content.set(content);
+    public void toggleMaximized() {
+        if (isMaximized()) {
+            restore();
+        } else {
+            maximize();
+        }
     }
 
-    public BooleanProperty darkThemeProperty() {
-        return darkTheme;
+    public boolean isVirtualMaximizeEnabled() {
+        return virtualMaximizeEnabled;
     }
 
-    public boolean isDarkTheme() {
-        return this.darkTheme.get();
+    /**
+     * Sets if {@link #maximize()} only sets the bounds of the stage to the visual bounds of its screen without
+     * maximizing it by the OS. The default value is false.
+     */
+    public void setVirtualMaximizeEnabled(boolean enabled) {
+        this.virtualMaximizeEnabled = enabled;
     }
 
-    public void setDarkTheme(boolean dark) {
-        this.darkTheme.set(dark);
+    public Duration getBoundsAnimationDuration() {
+        return boundsAnimationDuration;
     }
 
-    public BooleanProperty sizeEffectEnabledProperty() {
-        return sizeEffectEnabled;
+    /**
+     * Sets the duration of the bounds animation that is used by maximize, restore and snap zones. The default value
+     * is {@link Duration#ZERO} that means no animation.
+     */
+    public void setBoundsAnimationDuration(Duration duration) {
+        this.boundsAnimationDuration = duration;
     }
 
-    public boolean isSizeEffectEnabled() {
-        return sizeEffectEnabled.get();
+    public boolean isBoundsSnapshotEnabled() {
+        return boundsSnapshotEnabled;
     }
 
-    public void setSizeEffectEnabled(boolean enabled) {
-        sizeEffectEnabled.set(enabled);
+    /**
+     * Sets if the snapshot of the content is shown instead of the content while the bounds are animated, so the
+     * content is laid out only once, at the end of the animation. The default value is false.
+     */
+    public void setBoundsSnapshotEnabled(boolean enabled) {
+        this.boundsSnapshotEnabled = enabled;
     }
 
-    public ObjectProperty<Color> sizeEffectColorProperty() {
-        return sizeEffectColor;
+    /**
+     * Animates the bounds of the stage to the target bounds. The bounds are updated once per pulse, all together. If
+     * the duration is zero, the bounds are set at once.
+     */
+    public void animateBounds(Rectangle2D target, Duration duration, Interpolator interpolator) {
+        animateBounds(target, duration, interpolator, null);
     }
 
-    public Color getSizeEffectColor() {
-        return sizeEffectColor.get();
+    public RenderingMode getRenderingMode() {
+        return renderingMode;
     }
 
-    public void setSizeEffectColor(Color color) {
-        sizeEffectColor.set(color);
+    /**
+     * Sets the rendering mode. This method must be called before the stage is shown for the first time.
+     */
+    public void setRenderingMode(RenderingMode mode) {
+        var style = resolveStageStyle(mode);
+        this.stage.initStyle(style);
+        this.renderingMode = mode;
+        if (style == StageStyle.TRANSPARENT) {
+            this.stage.getScene().setFill(Color.TRANSPARENT);
+            this.stageBox.getStyleClass().remove("undecorated");
+        } else {
+            this.stage.getScene().setFill(Color.WHITE);
+            if (!this.stageBox.getStyleClass().contains("undecorated")) {
+                this.stageBox.getStyleClass().add("undecorated");
+            }
+        }
+        updateShadow();
     }
 
-    public HBox getTitleBar() {
+    /**
+     * Returns the title bar. Before the title bar had slots this method returned an {@link HBox},
+     * the nodes that were added to its children must be added to {@link TitleBar#getLeading()},
+     * {@link TitleBar#getCenter()} or {@link TitleBar#getTrailing()} now.
+     */
+    public TitleBar getTitleBar() {
         return this.titleBar;
     }
 
+    /**
+     * Returns the box that is added to the trailing slot of the title bar on the first call. It is kept only for
+     * the code that added the buttons to the button box, such a box is one more layout level of the title bar.
+     *
+     * @deprecated add the buttons to {@link TitleBar#getTrailing()} or {@link TitleBar#getLeading()}.
+     */
+    @Deprecated
     public HBox getButtonBox() {
-        return buttonBox;
+        if (this.buttonBox == null) {
+            this.buttonBox = new HBox();
+            this.buttonBox.getStyleClass().add("button-box");
+            this.titleBar.getTrailing().add(this.buttonBox);
+        }
+        return this.buttonBox;
     }
 
     public Stage getStage() {
@@ -175,77 +1074,167 @@ public class BaseStageController {
     }
 
     private void build() {
-        //with StageStyle.UNDECORATED resizing works slowly, besides with UNDECORATED style background bahind radius
-        //corners will be visible
-        this.stage.initStyle(StageStyle.TRANSPARENT);
         this.stage.setWidth(width);
         this.stage.setHeight(height);
         var scene = new Scene(this.stageBox);
-        scene.setFill(Color.TRANSPARENT);
         stage.setScene(scene);
         this.resizer = new StageResizer(this.stage.minWidthProperty(), this.stage.minHeightProperty(),
                 this.stage.maxWidthProperty(), this.stage.maxHeightProperty(), (e) -> onResizingStarted(e),
                 (e) -> onResizingFinished(e));
         this.resizer.initialize(stage);
+        this.resizer.setVerticalEdgeSnapper((x, minY, maxY) -> snapX(x, minY, maxY));
+        this.resizer.setHorizontalEdgeSnapper((y, minX, maxX) -> snapY(y, minX, maxX));
+        this.resizer.setResizedHandler(() -> updateSatellites());
+        //with the hardware pipeline StageStyle.UNDECORATED resizing works slowly, besides with UNDECORATED style
+        //background behind radius corners would be visible, so the undecorated stage box has square corners
+        setRenderingMode(defaultRenderingMode);
         VBox.setVgrow(stageBox, Priority.ALWAYS);
         //there are different stylesheet priorities for scene and node
-        scene.getStylesheets().add(BaseStageController.class.getResource("stage.css").toExternalForm());
-        this.stageBox.getStyleClass().add("stage-box");
-        VBox.setVgrow(this.contentArea, Priority.ALWAYS);
-        this.contentArea.getStyleClass().add("content-area");
-        this.titleBar.getStyleClass().add("title-bar");
-        this.buttonBox.getStyleClass().add("button-box");
-        checkMaximizedPseudoClass(getStage().maximizedProperty().get());
-        setEmptyContent();
+        scene.getStylesheets().add(StageChrome.STYLESHEET);
+        StageChrome.buildStageBox(this.stageBox, this.contentArea);
+        updateMaximized();
+        checkMaximizedPseudoClass(isMaximized());
     }
 
     private void addListeners() {
-        this.content.addListener((ov, oldValue, newV) -> {
-            if (newV != null) {
-                setNewContent(newV);
+        this.stage.maximizedProperty().addListener((ov, oldV, newV) -> updateMaximized());
+        this.stage.outputScaleXProperty().addListener((ov, oldV, newV) -> updateShadow());
+        this.stage.iconifiedProperty().addListener((ov, oldV, newV) -> {
+            if (newV) {
+                detachContent();
             } else {
+                reattachContent();
+            }
+        });
+    }
+
+    private void addHandlers() {
+        //the placeholder is created only if there is no content when the stage is shown
+        this.stage.addEventHandler(WindowEvent.WINDOW_SHOWING, (e) -> {
+            if (this.contentArea.getChildren().isEmpty() && this.detachedNode == null) {
                 setEmptyContent();
             }
         });
-        this.darkTheme.addListener((ov, oldV, newV) -> {
-            if (newV) {
-                this.stageBox.getStyleClass().add("dark");
-            } else {
-                this.stageBox.getStyleClass().remove("dark");
+        this.stage.addEventHandler(WindowEvent.WINDOW_HIDDEN, (e) -> cancelInteractions());
+        //mouse events that are synthesized from touches come late and duplicate the touch events, so they are ignored
+        this.titleBar.setOnMousePressed((event) -> {
+            if (!event.isSynthesized()) {
+                this.doOnTitleBarPressed(event, event.getScreenX(), event.getScreenY());
+            }
+        });
+        this.titleBar.setOnMouseDragged((event) -> {
+            if (!event.isSynthesized()) {
+                this.doOnTitleBarDragged(event, event.getScreenX(), event.getScreenY());
+            }
+        });
+        this.titleBar.setOnMouseReleased((event) -> {
+            if (!event.isSynthesized()) {
+                this.doOnTitleBarReleased(event);
+            }
+        });
+        this.titleBar.setOnTouchPressed((event) -> {
+            if (event.getTouchCount() == 1 && this.titleTouchId == -1) {
+                var point = event.getTouchPoint();
+                this.titleTouchId = point.getId();
+                this.doOnTitleBarPressed(event, point.getScreenX(), point.getScreenY());
+            }
+        });
+        this.titleBar.setOnTouchMoved((event) -> {
+            var point = event.getTouchPoint();
+            if (point.getId() == this.titleTouchId) {
+                requestTitleBarTouchCommit(event, point.getScreenX(), point.getScreenY());
+                event.consume();
+            }
+        });
+        this.titleBar.setOnTouchReleased((event) -> {
+            if (event.getTouchPoint().getId() == this.titleTouchId) {
+                commitTitleBarTouch();
+                this.titleTouchId = -1;
+                this.doOnTitleBarReleased(event);
             }
         });
-        this.stage.maximizedProperty().addListener((ov, oldV, newV) -> checkMaximizedPseudoClass(newV));
     }
 
-    private void addHandlers() {
-        this.titleBar.setOnMousePressed((event) -> this.doOnTitleBarMousePressed(event));
-        this.titleBar.setOnMouseDragged((event) -> this.doOnTitleBarMouseDragged(event));
-        this.titleBar.setOnMouseReleased((event) -> this.doOnTitleBarMouseReleased(event));
+    /**
+     * Keeps the position of the touch, the stage is moved once in the next pulse however many touch events come.
+     */
+    private void requestTitleBarTouchCommit(TouchEvent event, double screenX, double screenY) {
+        this.pendingTouchEvent = event;
+        this.pendingTouchX = screenX;
+        this.pendingTouchY = screenY;
+        if (!this.touchCommitPending) {
+            this.touchCommitPending = true;
+            PulseBatch.run(() -> commitTitleBarTouch());
+        }
     }
 
-    private void doOnTitleBarMousePressed(MouseEvent event) {
+    private void commitTitleBarTouch() {
+        if (!this.touchCommitPending || this.titleTouchId == -1) {
+            return;
+        }
+        this.touchCommitPending = false;
+        var event = this.pendingTouchEvent;
+        this.pendingTouchEvent = null;
+        doOnTitleBarDragged(event, this.pendingTouchX, this.pendingTouchY);
+    }
+
+    private void doOnTitleBarPressed(InputEvent event, double screenX, double screenY) {
+        if (this.boundsAnimator != null && this.boundsAnimator.isRunning()) {
+            this.boundsAnimator.stop();
+            endTransition();
+        }
         this.maximizeOnRelease = false;
-        this.pressedMouseX = event.getScreenX();
-        this.pressedMouseY = event.getScreenY();
+        this.snapZoneOnRelease = null;
+        this.moving = false;
+        this.pressedMouseX = screenX;
+        this.pressedMouseY = screenY;
         this.pressedX = this.stage.getX();
         this.pressedY = this.stage.getY();
-        if (this.sizeEffectEnabled.get()) {
+        if (isSizeEffectEnabled() || isSnapZonesEnabled()) {
             createEffectStage();
         }
         event.consume();
     }
 
-    private void doOnTitleBarMouseDragged(MouseEvent event) {
-        var mouseXDiff = event.getScreenX() - this.pressedMouseX;
-        var mouseYDiff = event.getScreenY() - this.pressedMouseY;
+    private void doOnTitleBarDragged(InputEvent event, double screenX, double screenY) {
+        if (!this.moving) {
+            this.moving = true;
+            //a virtually maximized stage that is dragged is not maximized any more
+            clearVirtualMaximized();
+            IdleTaskScheduler.getDefault().interactionStarted(this);
+            suspendContent();
+            this.stage.fireEvent(new StageMoveEvent(StageMoveEvent.STAGE_MOVING_STARTED, event));
+        }
+        var mouseXDiff = screenX - this.pressedMouseX;
+        var mouseYDiff = screenY - this.pressedMouseY;
         var newX = this.pressedX + mouseXDiff;
         var newY = this.pressedY + mouseYDiff;
+        if (isSnappingEnabled()) {
+            //the visible part of the stage is snapped, not its shadow
+            var insets = this.shadowInsets;
+            var x = newX + insets.getLeft();
+            var y = newY + insets.getTop();
+            var width = Math.max(0, this.stage.getWidth() - insets.getLeft() - insets.getRight());
+            var height = Math.max(0, this.stage.getHeight() - insets.getTop() - insets.getBottom());
+            x = snapSpan(x, width, snapX(x, y, y + height), snapX(x + width, y, y + height));
+            y = snapSpan(y, height, snapY(y, x, x + width), snapY(y + height, x, x + width));
+            newX = x - insets.getLeft();
+            newY = y - insets.getTop();
+        }
+        //fractional positions are rounded by the window manager, so they are snapped to device pixels here
+        newX = Math.round(newX * this.stage.getOutputScaleX()) / this.stage.getOutputScaleX();
+        newY = Math.round(newY * this.stage.getOutputScaleY()) / this.stage.getOutputScaleY();
         //it seems that javafx checks valid positions itself
+        setSatellitesSuspended(true);
         this.stage.setX(newX);
         this.stage.setY(newY);
-        if (this.sizeEffectEnabled.get()) {
+        setSatellitesSuspended(false);
+        updateSatellites();
+        if (isSnapZonesEnabled()) {
+            checkSnapZone(screenX, screenY);
+        } else if (isSizeEffectEnabled()) {
             var screen = resolveScreen();
-            if (event.getScreenY() <= screen.getVisualBounds().getMinY()) {
+            if (screenY <= screen.getVisualBounds().getMinY()) {
                 if (!this.effectStageRegion.isVisible()) {
                     //important! maximized stage is shown/hidden from/to center, with setMaximized(),
                     //show(), hide() methods depending on OS; that's why we work with node visibility
@@ -261,7 +1250,8 @@ public class BaseStageController {
                     this.effectStage.show();
                     this.stage.toFront();
                     this.maximizeOnRelease = true;
-                    showEffectAnimation();
+                    showEffectAnimation(new Rectangle2D(0, 0, this.effectStage.getWidth(),
+                            this.effectStage.getHeight()));
                 }
             } else {
                 this.maximizeOnRelease = false;
@@ -273,21 +1263,255 @@ public class BaseStageController {
         event.consume();
     }
 
-    private void doOnTitleBarMouseReleased(MouseEvent event) {
+    private void doOnTitleBarReleased(InputEvent event) {
         if (this.maximizeOnRelease) {
-            this.stage.setMaximized(true);
+            maximize();
+        } else if (this.snapZoneOnRelease != null) {
+            applySnapZone(this.snapZoneOnRelease);
+            this.snapZoneOnRelease = null;
         }
+        finishMoving(event);
+        event.consume();
+    }
+
+    /**
+     * Hides the effect stage and finishes moving, the event is null if the stage was hidden before the release.
+     */
+    private void finishMoving(InputEvent event) {
         if (this.effectStage != null) {
+            if (this.timeline != null) {
+                this.timeline.stop();
+            }
             this.effectStage.setWidth(0);
             this.effectStage.setHeight(0);
             this.effectStage.hide();
             this.effectStage = null;
             this.effectStageRegion = null;
         }
-        event.consume();
+        if (this.moving) {
+            this.moving = false;
+            this.stage.fireEvent(new StageMoveEvent(StageMoveEvent.STAGE_MOVING_FINISHED, event));
+            resumeContent();
+            IdleTaskScheduler.getDefault().interactionFinished(this);
+        }
+    }
+
+    /**
+     * Finishes all interactions of the hidden stage, the releases of the mouse and touches will not come.
+     */
+    private void cancelInteractions() {
+        this.resizer.cancelResizing();
+        this.titleTouchId = -1;
+        this.touchCommitPending = false;
+        this.pendingTouchEvent = null;
+        this.maximizeOnRelease = false;
+        this.snapZoneOnRelease = null;
+        finishMoving(null);
+        if (this.boundsAnimator != null && this.boundsAnimator.isRunning()) {
+            this.boundsAnimator.stop();
+            endTransition();
+        }
+    }
+
+    private void checkSnapZone(double screenX, double screenY) {
+        var zone = this.stage.isResizable() ? SnapZones.find(screenX, screenY) : null;
+        if (zone == this.snapZoneOnRelease) {
+            //the lookup is cheap, nothing is changed while the mouse stays in the same zone
+            return;
+        }
+        this.snapZoneOnRelease = zone;
+        if (zone == null) {
+            this.effectStageRegion.setVisible(false);
+            this.effectStage.setWidth(0);
+            this.effectStage.setHeight(0);
+            return;
+        }
+        var area = zone.getArea();
+        if (!this.effectStageRegion.isVisible() || this.effectStage.getX() != area.getMinX()
+                || this.effectStage.getY() != area.getMinY()) {
+            //the preview starts from the current bounds of the stage
+            this.effectStage.setX(area.getMinX());
+            this.effectStage.setY(area.getMinY());
+            this.effectStage.setWidth(area.getWidth());
+            this.effectStage.setHeight(area.getHeight());
+            this.effectStageRegion.setVisible(true);
+            this.effectStageRegion.setLayoutX(this.stage.getX() - area.getMinX());
+            this.effectStageRegion.setLayoutY(this.stage.getY() - area.getMinY());
+            this.effectStageRegion.setPrefWidth(this.stage.getWidth());
+            this.effectStageRegion.setPrefHeight(this.stage.getHeight());
+            this.effectStage.show();
+            this.stage.toFront();
+        }
+        var bounds = zone.getBounds();
+        showEffectAnimation(new Rectangle2D(bounds.getMinX() - area.getMinX(), bounds.getMinY() - area.getMinY(),
+                bounds.getWidth(), bounds.getHeight()));
+    }
+
+    private void applySnapZone(SnapZones.Zone zone) {
+        if (zone.isMaximizing()) {
+            maximize();
+            return;
+        }
+        clearVirtualMaximized();
+        //the bounds are applied once, on release
+        animateBounds(toStageBounds(zone.getBounds()), this.boundsAnimationDuration, Interpolator.EASE_BOTH);
+    }
+
+    private String appendThemeStyle(String style) {
+        if (style == null || style.isBlank()) {
+            return this.themeStyle;
+        }
+        if (this.themeStyle.isEmpty() || style.trim().endsWith(";")) {
+            return style + this.themeStyle;
+        }
+        return style + ";" + this.themeStyle;
+    }
+
+    private String removeThemeStyle(String style) {
+        if (style == null) {
+            return "";
+        }
+        if (!this.themeStyle.isEmpty() && style.endsWith(this.themeStyle)) {
+            return style.substring(0, style.length() - this.themeStyle.length());
+        }
+        return style;
+    }
+
+    private void clearVirtualMaximized() {
+        if (this.virtuallyMaximized) {
+            this.virtuallyMaximized = false;
+            this.restoreBounds = null;
+            updateMaximized();
+        }
+    }
+
+    private void animateBounds(Rectangle2D target, Duration duration, Interpolator interpolator,
+            Runnable finishedHandler) {
+        if (this.boundsAnimator != null && this.boundsAnimator.isRunning()) {
+            this.boundsAnimator.stop();
+            endTransition();
+        }
+        if (duration.lessThanOrEqualTo(Duration.ZERO)) {
+            setBounds(target);
+            if (finishedHandler != null) {
+                finishedHandler.run();
+            }
+            return;
+        }
+        if (this.boundsAnimator == null) {
+            this.boundsAnimator = new BoundsAnimator((bounds) -> setBounds(bounds));
+        }
+        startTransition();
+        this.boundsAnimator.play(getBounds(), target, duration, interpolator, () -> {
+            endTransition();
+            if (finishedHandler != null) {
+                finishedHandler.run();
+            }
+        });
+    }
+
+    /**
+     * Replaces the content with its snapshot for the time of the bounds animation.
+     */
+    private void startTransition() {
+        if (!this.boundsSnapshotEnabled || this.detachedNode != null || this.contentArea.getChildren().isEmpty()) {
+            return;
+        }
+        var node = this.contentArea.getChildren().get(0);
+        var view = createSnapshotView(node);
+        if (view == null) {
+            return;
+        }
+        view.relocate(0, 0);
+        view.fitWidthProperty().bind(this.contentArea.widthProperty());
+        view.fitHeightProperty().bind(this.contentArea.heightProperty());
+        this.transitionView = view;
+        this.detachedNode = node;
+        this.contentArea.getChildren().setAll(view);
+        suspendContent();
+    }
+
+    private void endTransition() {
+        if (this.transitionView == null) {
+            return;
+        }
+        this.transitionView.fitWidthProperty().unbind();
+        this.transitionView.fitHeightProperty().unbind();
+        this.transitionView = null;
+        if (this.stage.isIconified()) {
+            //the content is detached for the iconified stage, it will be reattached on restore
+            return;
+        }
+        reattachContent();
+    }
+
+    /**
+     * Returns the bounds of the visible part of the stage, that is the bounds of the stage without the shadow insets.
+     * Snapping, tiling and snap zones work with these bounds.
+     */
+    Rectangle2D getVisibleBounds() {
+        var insets = this.shadowInsets;
+        return new Rectangle2D(this.stage.getX() + insets.getLeft(), this.stage.getY() + insets.getTop(),
+                Math.max(0, this.stage.getWidth() - insets.getLeft() - insets.getRight()),
+                Math.max(0, this.stage.getHeight() - insets.getTop() - insets.getBottom()));
+    }
+
+    /**
+     * Sets the bounds of the stage so that its visible part gets the given bounds.
+     */
+    void setVisibleBounds(Rectangle2D bounds) {
+        setBounds(toStageBounds(bounds));
+    }
+
+    /**
+     * Returns the bounds of the stage whose visible part has the given bounds.
+     */
+    Rectangle2D toStageBounds(Rectangle2D visibleBounds) {
+        var insets = this.shadowInsets;
+        return new Rectangle2D(visibleBounds.getMinX() - insets.getLeft(), visibleBounds.getMinY() - insets.getTop(),
+                visibleBounds.getWidth() + insets.getLeft() + insets.getRight(),
+                visibleBounds.getHeight() + insets.getTop() + insets.getBottom());
+    }
+
+    /**
+     * Returns the insets between the bounds of the stage and its visible part.
+     */
+    Insets getShadowInsets() {
+        return shadowInsets;
+    }
+
+    private Rectangle2D getBounds() {
+        return new Rectangle2D(this.stage.getX(), this.stage.getY(), this.stage.getWidth(), this.stage.getHeight());
+    }
+
+    /**
+     * Sets all the bounds of the stage snapped to device pixels, the satellites are updated once.
+     */
+    private void setBounds(Rectangle2D bounds) {
+        var scaleX = this.stage.getOutputScaleX();
+        var scaleY = this.stage.getOutputScaleY();
+        setSatellitesSuspended(true);
+        this.stage.setX(Math.round(bounds.getMinX() * scaleX) / scaleX);
+        this.stage.setY(Math.round(bounds.getMinY() * scaleY) / scaleY);
+        this.stage.setWidth(Math.round(bounds.getWidth() * scaleX) / scaleX);
+        this.stage.setHeight(Math.round(bounds.getHeight() * scaleY) / scaleY);
+        setSatellitesSuspended(false);
+        updateSatellites();
+    }
+
+    private void updateMaximized() {
+        this.maximized.set(this.stage.isMaximized() || this.virtuallyMaximized);
     }
 
     private void setNewContent(Node content) {
+        if (this.detachedNode != null && content != null) {
+            //the stage is iconified, the new content will be attached on restore
+            VBox.setVgrow(content, Priority.ALWAYS);
+            this.detachedNode = content;
+            //the snapshot of the old content is of no use
+            this.snapshotView = null;
+            return;
+        }
         this.contentArea.getChildren().clear();
         if (content != null) {
             VBox.setVgrow(content, Priority.ALWAYS);
@@ -297,20 +1521,195 @@ public class BaseStageController {
         }
     }
 
+    private void onContentChanged(Node content) {
+        if (content != this.keyedContent) {
+            //the keyed content was replaced by a content without a key
+            this.keyedContent = null;
+            this.contentKey = null;
+        }
+        if (content != null) {
+            setNewContent(content);
+        } else {
+            setEmptyContent();
+        }
+    }
+
     private void setEmptyContent() {
         var label = new Label("No Content");
-        var node = new StackPane(label);
-        setNewContent(node);
+        label.setMaxSize(Double.MAX_VALUE, Double.MAX_VALUE);
+        label.setAlignment(Pos.CENTER);
+        setNewContent(label);
+    }
+
+    private void detachContent() {
+        var policy = getIconifiedContentPolicy();
+        if (policy == null || policy == IconifiedContentPolicy.KEEP_ATTACHED || this.detachedNode != null
+                || this.contentArea.getChildren().isEmpty()) {
+            return;
+        }
+        var node = this.contentArea.getChildren().get(0);
+        if (policy == IconifiedContentPolicy.DETACH_WITH_SNAPSHOT) {
+            this.snapshotView = createSnapshotView(node);
+        }
+        this.detachedNode = node;
+        this.contentArea.getChildren().clear();
+        suspendContent();
+    }
+
+    private void reattachContent() {
+        if (this.detachedNode == null) {
+            return;
+        }
+        var node = this.detachedNode;
+        this.detachedNode = null;
+        this.contentArea.getChildren().setAll(node);
+        resumeContent();
+        if (this.snapshotView != null) {
+            var view = this.snapshotView;
+            this.snapshotView = null;
+            //the snapshot is unmanaged, so it covers the content without taking part in the layout
+            this.contentArea.getChildren().add(view);
+            var scene = this.stage.getScene();
+            Runnable listener = new Runnable() {
+
+                @Override
+                public void run() {
+                    scene.removePostLayoutPulseListener(this);
+                    //the content is laid out in this pulse, so the snapshot is removed in the next one
+                    PulseBatch.run(() -> contentArea.getChildren().remove(view));
+                }
+            };
+            scene.addPostLayoutPulseListener(listener);
+        }
+    }
+
+    private ImageView createSnapshotView(Node node) {
+        var bounds = node.getBoundsInParent();
+        if (bounds.getWidth() <= 0 || bounds.getHeight() <= 0) {
+            return null;
+        }
+        var parameters = new SnapshotParameters();
+        //the snapshot is taken in device pixels, so it is not blurry on HiDPI screens
+        parameters.setTransform(Transform.scale(this.stage.getOutputScaleX(), this.stage.getOutputScaleY()));
+        var view = new ImageView(node.snapshot(parameters, null));
+        view.setFitWidth(bounds.getWidth());
+        view.setFitHeight(bounds.getHeight());
+        view.setManaged(false);
+        view.relocate(bounds.getMinX(), bounds.getMinY());
+        return view;
     }
 
-    private void onResizingStarted(MouseEvent mouseEvent) {
-        var event = new StageResizeEvent(StageResizeEvent.STAGE_RESIZING_STARTED, mouseEvent);
+    private void onResizingStarted(InputEvent inputEvent) {
+        setSatellitesSuspended(true);
+        suspendContent();
+        var event = new StageResizeEvent(StageResizeEvent.STAGE_RESIZING_STARTED, inputEvent);
         this.stage.fireEvent(event);
     }
 
-    private void onResizingFinished(MouseEvent mouseEvent) {
-        var event = new StageResizeEvent(StageResizeEvent.STAGE_RESIZING_FINISHED, mouseEvent);
+    private void onResizingFinished(InputEvent inputEvent) {
+        setSatellitesSuspended(false);
+        var event = new StageResizeEvent(StageResizeEvent.STAGE_RESIZING_FINISHED, inputEvent);
         this.stage.fireEvent(event);
+        resumeContent();
+    }
+
+    private void suspendContent() {
+        this.suspensionCount++;
+        if (this.suspensionCount == 1 && this.suspendables != null) {
+            for (var s : this.suspendables) {
+                s.suspend();
+            }
+        }
+    }
+
+    private void resumeContent() {
+        if (this.suspensionCount == 0) {
+            return;
+        }
+        this.suspensionCount--;
+        if (this.suspensionCount == 0 && this.suspendables != null) {
+            //a copy, because a suspendable can remove itself on resume
+            for (var s : new ArrayList<>(this.suspendables)) {
+                s.resume();
+            }
+        }
+    }
+
+    private StageRoot resolveStageRoot() {
+        if (this.stageRoot == null) {
+            this.stageRoot = new StageRoot();
+            //the stage box is the root now, so it must be replaced before being added to the new root
+            this.stage.getScene().setRoot(this.stageRoot);
+            this.stageRoot.setStageBox(this.stageBox);
+        }
+        return this.stageRoot;
+    }
+
+    private void updateShadow() {
+        //both values are read to validate the properties, otherwise they will not be invalidated again
+        var radius = getShadowRadius();
+        var color = getShadowColor();
+        if (radius <= 0 && this.stageRoot == null) {
+            return;
+        }
+        Border border = null;
+        if (radius > 0 && !isMaximized() && this.stage.getStyle() == StageStyle.TRANSPARENT) {
+            border = ShadowCache.getBorder(radius, color, this.stage.getOutputScaleX());
+        }
+        resolveStageRoot().setBorder(border);
+        this.shadowInsets = border == null ? Insets.EMPTY : border.getInsets();
+        this.resizer.setInsets(this.shadowInsets);
+        //the visible bounds are changed even if the bounds of the stage are not
+        StageProRegistry.getDefault().getSnapIndex().markDirty(this);
+    }
+
+    private SatelliteGroup resolveSatelliteGroup() {
+        if (this.satelliteGroup == null) {
+            this.satelliteGroup = new SatelliteGroup(this.stage);
+        }
+        return this.satelliteGroup;
+    }
+
+    private void setSatellitesSuspended(boolean suspended) {
+        if (this.satelliteGroup != null) {
+            this.satelliteGroup.setOwnerSuspended(suspended);
+        }
+    }
+
+    private void updateSatellites() {
+        if (this.satelliteGroup != null && !this.satelliteGroup.isEmpty()) {
+            this.satelliteGroup.update();
+        }
+    }
+
+    private double snapX(double x, double minY, double maxY) {
+        if (!isSnappingEnabled()) {
+            return x;
+        }
+        return StageProRegistry.getDefault().getSnapIndex().snapX(this, x, minY, maxY, getSnappingDistance());
+    }
+
+    private double snapY(double y, double minX, double maxX) {
+        if (!isSnappingEnabled()) {
+            return y;
+        }
+        return StageProRegistry.getDefault().getSnapIndex().snapY(this, y, minX, maxX, getSnappingDistance());
+    }
+
+    /**
+     * Returns the new start of the span (x with width or y with height) using the snapped start or snapped end,
+     * whichever moves the span less.
+     */
+    private double snapSpan(double start, double size, double snappedStart, double snappedEnd) {
+        var startDiff = snappedStart - start;
+        var endDiff = snappedEnd - (start + size);
+        if (startDiff == 0 && endDiff == 0) {
+            return start;
+        } else if (startDiff != 0 && (endDiff == 0 || Math.abs(startDiff) <= Math.abs(endDiff))) {
+            return snappedStart;
+        } else {
+            return snappedEnd - size;
+        }
     }
 
     private Screen resolveScreen() {
@@ -327,7 +1726,7 @@ public class BaseStageController {
         if (this.effectStage == null) {
             this.effectStageRegion = new Region();
             this.effectStageRegion.setStyle("-fx-background-color:"
-                    + ColorUtils.toHexWithAlpha(sizeEffectColor.get()));
+                    + ColorUtils.toHexWithAlpha(getSizeEffectColor()));
             this.effectStageRegion.setVisible(false);
             var root = new AnchorPane(this.effectStageRegion);
             root.setStyle("-fx-background-color: transparent;");
@@ -339,14 +1738,30 @@ public class BaseStageController {
         }
     }
 
-    private void showEffectAnimation() {
-         if (timeline.getStatus() == Timeline.Status.RUNNING) {
+    /**
+     * Animates the region of the effect stage from its current bounds to the target bounds.
+     */
+    private void showEffectAnimation(Rectangle2D target) {
+        if (this.timeline == null) {
+            this.timeline = new Timeline();
+            //idle tasks and the suspendables wait while the effect is animated
+            this.timeline.statusProperty().addListener((ov, oldV, newV) -> {
+                if (newV == Animation.Status.RUNNING) {
+                    suspendContent();
+                    IdleTaskScheduler.getDefault().interactionStarted(this.timeline);
+                } else if (oldV == Animation.Status.RUNNING) {
+                    IdleTaskScheduler.getDefault().interactionFinished(this.timeline);
+                    resumeContent();
+                }
+            });
+        } else if (timeline.getStatus() == Timeline.Status.RUNNING) {
             timeline.stop();
         }
-        var bigX = 0;
-        var bigY = 0;
-        var bigWidth = this.effectStage.getWidth();
-        var bigHeight = this.effectStage.getHeight();
+        timeline.getKeyFrames().clear();
+        var bigX = target.getMinX();
+        var bigY = target.getMinY();
+        var bigWidth = target.getWidth();
+        var bigHeight = target.getHeight();
         var smallX = this.effectStageRegion.getLayoutX();
         var smallY = this.effectStageRegion.getLayoutY();
         var smallWidth = this.effectStageRegion.getPrefWidth();
@@ -360,11 +1775,11 @@ public class BaseStageController {
                     var currentWidth = smallWidth + (bigWidth - smallWidth) * step / steps;
                     var currentHeight = smallHeight + (bigHeight - smallHeight) * step / steps;
                     var currentX = smallX + (bigX - smallX) * step / steps;
-                    //var currentY = smallY + (bigY - smallY) * step / steps;
+                    var currentY = smallY + (bigY - smallY) * step / steps;
                     this.effectStageRegion.setPrefWidth(currentWidth);
                     this.effectStageRegion.setPrefHeight(currentHeight);
                     this.effectStageRegion.setLayoutX(currentX);
-                    //this.effectStageRegion.setLayoutY(currentY);
+                    this.effectStageRegion.setLayoutY(currentY);
                 }
             );
             timeline.getKeyFrames().add(keyFrame);
@@ -0,0 +1,122 @@
+/*
+ * Copyright 2024 Pavel Castornii.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.techsenger.stagepro.core;
+
+import java.util.function.Consumer;
+import javafx.animation.AnimationTimer;
+import javafx.animation.Interpolator;
+import javafx.geometry.Rectangle2D;
+import javafx.util.Duration;
+
+/**
+ * Animates the bounds of a stage. The bounds are computed once per pulse and passed to the applier, which sets all of
+ * them together, so the native window gets one bounds update per frame.
+ *
+ * @author Pavel Castornii
+ */
+final class BoundsAnimator {
+
+    private final Consumer<Rectangle2D> applier;
+
+    private final AnimationTimer timer = new AnimationTimer() {
+
+        @Override
+        public void handle(long now) {
+            doOnPulse(now);
+        }
+    };
+
+    private Rectangle2D from;
+
+    private Rectangle2D to;
+
+    private long durationNanos;
+
+    private Interpolator interpolator;
+
+    private Runnable finishedHandler;
+
+    /**
+     * The time of the first pulse of the animation, 0 if it has not come yet.
+     */
+    private long startNanos;
+
+    private boolean running = false;
+
+    BoundsAnimator(Consumer<Rectangle2D> applier) {
+        this.applier = applier;
+    }
+
+    /**
+     * Starts the animation. If the animation is running, it is stopped without calling its finished handler.
+     */
+    void play(Rectangle2D from, Rectangle2D to, Duration duration, Interpolator interpolator,
+            Runnable finishedHandler) {
+        this.from = from;
+        this.to = to;
+        this.durationNanos = (long) (duration.toMillis() * 1_000_000);
+        this.interpolator = interpolator;
+        this.finishedHandler = finishedHandler;
+        this.startNanos = 0;
+        if (!this.running) {
+            this.running = true;
+            IdleTaskScheduler.getDefault().interactionStarted(this);
+        }
+        this.timer.start();
+    }
+
+    /**
+     * Stops the animation, the bounds stay as they are and the finished handler is not called.
+     */
+    void stop() {
+        if (this.running) {
+            this.running = false;
+            this.timer.stop();
+            this.finishedHandler = null;
+            IdleTaskScheduler.getDefault().interactionFinished(this);
+        }
+    }
+
+    boolean isRunning() {
+        return running;
+    }
+
+    private void doOnPulse(long now) {
+        if (this.startNanos == 0) {
+            this.startNanos = now;
+        }
+        var fraction = this.durationNanos <= 0 ? 1 : Math.min(1, (double) (now - this.startNanos) / durationNanos);
+        if (fraction >= 1) {
+            var handler = this.finishedHandler;
+            this.running = false;
+            this.timer.stop();
+            this.finishedHandler = null;
+            IdleTaskScheduler.getDefault().interactionFinished(this);
+            this.applier.accept(this.to);
+            if (handler != null) {
+                handler.run();
+            }
+            return;
+        }
+        var value = this.interpolator.interpolate(0.0, 1.0, fraction);
+        this.applier.accept(new Rectangle2D(
+                this.from.getMinX() + (this.to.getMinX() - this.from.getMinX()) * value,
+                this.from.getMinY() + (this.to.getMinY() - this.from.getMinY()) * value,
+                this.from.getWidth() + (this.to.getWidth() - this.from.getWidth()) * value,
+                this.from.getHeight() + (this.to.getHeight() - this.from.getHeight()) * value));
+    }
+}
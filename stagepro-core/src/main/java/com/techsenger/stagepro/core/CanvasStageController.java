@@ -0,0 +1,91 @@
+/*
+ * Copyright 2024 Pavel Castornii.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.techsenger.stagepro.core;
+
+import javafx.beans.binding.Bindings;
+import javafx.collections.ListChangeListener;
+import javafx.scene.image.Image;
+import javafx.scene.input.MouseButton;
+import javafx.scene.input.MouseEvent;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.Priority;
+import javafx.stage.Stage;
+
+/**
+ * A stage with the same title bar elements as {@link StandardStageController} (icon, title, minimize, maximize and
+ * close buttons), but all of them are drawn by one {@link CanvasTitleBar}. Use this controller when an application
+ * creates hundreds of small windows and the creation time and memory of every window matter.
+ *
+ * @author Pavel Castornii
+ */
+public class CanvasStageController extends BaseStageController {
+
+    private final CanvasTitleBar canvasTitleBar = new CanvasTitleBar();
+
+    public CanvasStageController(Stage stage, double width, double height) {
+        super(stage, width, height);
+        build();
+        bind();
+        addListeners();
+        addHandlers();
+    }
+
+    public CanvasTitleBar getCanvasTitleBar() {
+        return canvasTitleBar;
+    }
+
+    private void build() {
+        HBox.setHgrow(this.canvasTitleBar, Priority.ALWAYS);
+        getTitleBar().getCenter().add(this.canvasTitleBar);
+        this.canvasTitleBar.setTitle(getStage().getTitle());
+        this.canvasTitleBar.setMaximized(isMaximized());
+        this.canvasTitleBar.setMaximizable(getStage().isResizable());
+        this.canvasTitleBar.setDarkTheme(isDarkTheme());
+        updateIcon();
+    }
+
+    private void bind() {
+        getResizer().disabledProperty().bind(maximizedProperty()
+                .or(Bindings.not(getStage().resizableProperty())));
+    }
+
+    private void addListeners() {
+        getStage().titleProperty().addListener((ov, oldV, newV) -> this.canvasTitleBar.setTitle(newV));
+        maximizedProperty().addListener((ov, oldV, newV) -> this.canvasTitleBar.setMaximized(newV));
+        getStage().resizableProperty().addListener((ov, oldV, newV) -> this.canvasTitleBar.setMaximizable(newV));
+        darkThemeProperty().addListener((ov, oldV, newV) -> this.canvasTitleBar.setDarkTheme(newV));
+        getStage().getIcons().addListener((ListChangeListener<Image>) (c) -> updateIcon());
+    }
+
+    private void addHandlers() {
+        this.canvasTitleBar.setOnClose(() -> getStage().close());
+        this.canvasTitleBar.setOnMinimize(() -> getStage().setIconified(true));
+        this.canvasTitleBar.setOnMaximize(() -> toggleMaximized());
+        //glyph clicks are consumed by the canvas title bar, so a handler, not a filter, is used
+        getTitleBar().addEventHandler(MouseEvent.MOUSE_CLICKED, e -> {
+            if (e.getButton() == MouseButton.PRIMARY && e.getClickCount() == 2 && getStage().isResizable()) {
+                toggleMaximized();
+                e.consume();
+            }
+        });
+    }
+
+    private void updateIcon() {
+        var icons = getStage().getIcons();
+        this.canvasTitleBar.setIcon(icons.isEmpty() ? null : icons.get(0));
+    }
+}
@@ -0,0 +1,503 @@
+/*
+ * Copyright 2024 Pavel Castornii.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.techsenger.stagepro.core;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import javafx.beans.property.ObjectProperty;
+import javafx.css.CssMetaData;
+import javafx.css.Styleable;
+import javafx.css.StyleableObjectProperty;
+import javafx.css.StyleableProperty;
+import javafx.css.converter.PaintConverter;
+import javafx.geometry.VPos;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.Image;
+import javafx.scene.input.MouseButton;
+import javafx.scene.input.MouseEvent;
+import javafx.scene.layout.Region;
+import javafx.scene.paint.Color;
+import javafx.scene.paint.Paint;
+import javafx.scene.text.Font;
+import javafx.scene.text.Text;
+
+/**
+ * A title bar content that draws the icon, the title and the close, minimize and maximize glyphs on a single
+ * {@link Canvas}. It is a lightweight alternative to the controls used by {@link StandardStageController}: it has no
+ * skins, does its own hit-testing and redraws only when its state changes. The colors are set by CSS
+ * ({@code -fx-text-fill} and {@code -sp-glyph-color}), {@code stage.css} takes them from the theme tokens.
+ *
+ * @author Pavel Castornii
+ */
+public class CanvasTitleBar extends Region {
+
+    /**
+     * The glyphs, in order from left to right.
+     */
+    enum Glyph {
+        MINIMIZE, MAXIMIZE, CLOSE
+    }
+
+    private static final double GLYPH_SIZE = 20;
+
+    private static final double GLYPH_SPACING = 10;
+
+    private static final double ICON_SPACING = 10;
+
+    private static final String ELLIPSIS = "...";
+
+    private static final CssMetaData<CanvasTitleBar, Paint> TEXT_FILL =
+            new CssMetaData<>("-fx-text-fill", PaintConverter.getInstance(), Color.BLACK) {
+
+        @Override
+        public boolean isSettable(CanvasTitleBar node) {
+            return node.textFill == null || !node.textFill.isBound();
+        }
+
+        @Override
+        public StyleableProperty<Paint> getStyleableProperty(CanvasTitleBar node) {
+            return (StyleableProperty<Paint>) node.textFillProperty();
+        }
+    };
+
+    private static final CssMetaData<CanvasTitleBar, Paint> GLYPH_COLOR =
+            new CssMetaData<>("-sp-glyph-color", PaintConverter.getInstance(), Color.web("#BBBBBB")) {
+
+        @Override
+        public boolean isSettable(CanvasTitleBar node) {
+            return node.glyphColor == null || !node.glyphColor.isBound();
+        }
+
+        @Override
+        public StyleableProperty<Paint> getStyleableProperty(CanvasTitleBar node) {
+            return (StyleableProperty<Paint>) node.glyphColorProperty();
+        }
+    };
+
+    private static final List<CssMetaData<? extends Styleable, ?>> cssMetaData;
+
+    static {
+        var list = new ArrayList<>(Region.getClassCssMetaData());
+        list.add(TEXT_FILL);
+        list.add(GLYPH_COLOR);
+        cssMetaData = Collections.unmodifiableList(list);
+    }
+
+    public static List<CssMetaData<? extends Styleable, ?>> getClassCssMetaData() {
+        return cssMetaData;
+    }
+
+    /**
+     * Shared text node used for measuring titles, it is used only on the FX thread.
+     */
+    private static Text measuringText;
+
+    private final Canvas canvas = new Canvas();
+
+    private String title = "";
+
+    /**
+     * The ellipsized title, it is cached for the title and the width it was computed for.
+     */
+    private String shownTitle;
+
+    private String shownTitleSource;
+
+    private double shownTitleWidth = -1;
+
+    private ObjectProperty<Paint> textFill;
+
+    private ObjectProperty<Paint> glyphColor;
+
+    private Image icon;
+
+    private boolean maximized;
+
+    private boolean darkTheme;
+
+    private boolean maximizable = true;
+
+    private Glyph hovered;
+
+    private Glyph pressed;
+
+    private Runnable onClose;
+
+    private Runnable onMinimize;
+
+    private Runnable onMaximize;
+
+    public CanvasTitleBar() {
+        getChildren().add(canvas);
+        getStyleClass().add("canvas-title-bar");
+        addHandlers();
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(String title) {
+        if (title == null) {
+            title = "";
+        }
+        if (!this.title.equals(title)) {
+            this.title = title;
+            redraw();
+        }
+    }
+
+    public Image getIcon() {
+        return icon;
+    }
+
+    public void setIcon(Image icon) {
+        if (this.icon != icon) {
+            this.icon = icon;
+            redraw();
+        }
+    }
+
+    public boolean isMaximized() {
+        return maximized;
+    }
+
+    public void setMaximized(boolean maximized) {
+        if (this.maximized != maximized) {
+            this.maximized = maximized;
+            redraw();
+        }
+    }
+
+    /**
+     * The color of the title and of the glyph lines.
+     */
+    public ObjectProperty<Paint> textFillProperty() {
+        if (textFill == null) {
+            textFill = createPaintProperty("textFill", TEXT_FILL);
+        }
+        return textFill;
+    }
+
+    public Paint getTextFill() {
+        return textFill == null ? TEXT_FILL.getInitialValue(this) : textFill.get();
+    }
+
+    public void setTextFill(Paint value) {
+        textFillProperty().set(value);
+    }
+
+    /**
+     * The background color of the glyphs, a hovered glyph is drawn a little darker (or lighter in the dark theme).
+     */
+    public ObjectProperty<Paint> glyphColorProperty() {
+        if (glyphColor == null) {
+            glyphColor = createPaintProperty("glyphColor", GLYPH_COLOR);
+        }
+        return glyphColor;
+    }
+
+    public Paint getGlyphColor() {
+        return glyphColor == null ? GLYPH_COLOR.getInitialValue(this) : glyphColor.get();
+    }
+
+    public void setGlyphColor(Paint value) {
+        glyphColorProperty().set(value);
+    }
+
+    public boolean isDarkTheme() {
+        return darkTheme;
+    }
+
+    public void setDarkTheme(boolean darkTheme) {
+        if (this.darkTheme != darkTheme) {
+            this.darkTheme = darkTheme;
+            redraw();
+        }
+    }
+
+    /**
+     * Returns true if the maximize glyph is enabled.
+     */
+    public boolean isMaximizable() {
+        return maximizable;
+    }
+
+    public void setMaximizable(boolean maximizable) {
+        if (this.maximizable != maximizable) {
+            this.maximizable = maximizable;
+            redraw();
+        }
+    }
+
+    public void setOnClose(Runnable onClose) {
+        this.onClose = onClose;
+    }
+
+    public void setOnMinimize(Runnable onMinimize) {
+        this.onMinimize = onMinimize;
+    }
+
+    public void setOnMaximize(Runnable onMaximize) {
+        this.onMaximize = onMaximize;
+    }
+
+    @Override
+    public List<CssMetaData<? extends Styleable, ?>> getCssMetaData() {
+        return getClassCssMetaData();
+    }
+
+    @Override
+    protected double computePrefWidth(double height) {
+        return snappedLeftInset() + snappedRightInset() + 3 * GLYPH_SIZE + 2 * GLYPH_SPACING;
+    }
+
+    @Override
+    protected double computePrefHeight(double width) {
+        return snappedTopInset() + snappedBottomInset() + GLYPH_SIZE;
+    }
+
+    @Override
+    protected void layoutChildren() {
+        var x = snappedLeftInset();
+        var y = snappedTopInset();
+        var w = snapSizeX(getWidth() - x - snappedRightInset());
+        var h = snapSizeY(getHeight() - y - snappedBottomInset());
+        this.canvas.relocate(x, y);
+        if (this.canvas.getWidth() != w || this.canvas.getHeight() != h) {
+            this.canvas.setWidth(w);
+            this.canvas.setHeight(h);
+            redraw();
+        }
+    }
+
+    /**
+     * Returns the glyph at the given canvas coordinates or null.
+     */
+    Glyph resolveGlyph(double x, double y) {
+        var centerY = this.canvas.getHeight() / 2;
+        if (Math.abs(y - centerY) > GLYPH_SIZE / 2) {
+            return null;
+        }
+        var right = this.canvas.getWidth();
+        var glyphs = Glyph.values();
+        for (int i = glyphs.length - 1; i >= 0; i--) {
+            var left = right - GLYPH_SIZE;
+            if (x >= left && x <= right) {
+                return glyphs[i];
+            }
+            right = left - GLYPH_SPACING;
+        }
+        return null;
+    }
+
+    private ObjectProperty<Paint> createPaintProperty(String name, CssMetaData<CanvasTitleBar, Paint> metaData) {
+        return new StyleableObjectProperty<>(metaData.getInitialValue(this)) {
+
+            @Override
+            protected void invalidated() {
+                redraw();
+            }
+
+            @Override
+            public Object getBean() {
+                return CanvasTitleBar.this;
+            }
+
+            @Override
+            public String getName() {
+                return name;
+            }
+
+            @Override
+            public CssMetaData<CanvasTitleBar, Paint> getCssMetaData() {
+                return metaData;
+            }
+        };
+    }
+
+    private void addHandlers() {
+        this.canvas.addEventHandler(MouseEvent.MOUSE_MOVED, e -> setHovered(resolveGlyph(e.getX(), e.getY())));
+        this.canvas.addEventHandler(MouseEvent.MOUSE_EXITED, e -> setHovered(null));
+        this.canvas.addEventHandler(MouseEvent.MOUSE_PRESSED, e -> {
+            var glyph = resolveGlyph(e.getX(), e.getY());
+            if (glyph != null && e.getButton() == MouseButton.PRIMARY) {
+                this.pressed = glyph;
+                //the title bar must not start dragging the stage
+                e.consume();
+            }
+        });
+        this.canvas.addEventHandler(MouseEvent.MOUSE_DRAGGED, e -> {
+            if (this.pressed != null) {
+                e.consume();
+            }
+        });
+        this.canvas.addEventHandler(MouseEvent.MOUSE_RELEASED, e -> {
+            if (this.pressed != null) {
+                var glyph = resolveGlyph(e.getX(), e.getY());
+                if (glyph == this.pressed) {
+                    fire(glyph);
+                }
+                this.pressed = null;
+                e.consume();
+            }
+        });
+        this.canvas.addEventHandler(MouseEvent.MOUSE_CLICKED, e -> {
+            if (resolveGlyph(e.getX(), e.getY()) != null) {
+                e.consume();
+            }
+        });
+    }
+
+    private void fire(Glyph glyph) {
+        Runnable action = null;
+        switch (glyph) {
+            case CLOSE:
+                action = this.onClose;
+                break;
+            case MINIMIZE:
+                action = this.onMinimize;
+                break;
+            case MAXIMIZE:
+                if (this.maximizable) {
+                    action = this.onMaximize;
+                }
+                break;
+            default:
+                break;
+        }
+        if (action != null) {
+            action.run();
+        }
+    }
+
+    private void setHovered(Glyph glyph) {
+        if (this.hovered != glyph) {
+            this.hovered = glyph;
+            redraw();
+        }
+    }
+
+    private void redraw() {
+        var width = this.canvas.getWidth();
+        var height = this.canvas.getHeight();
+        if (width <= 0 || height <= 0) {
+            return;
+        }
+        var gc = this.canvas.getGraphicsContext2D();
+        gc.clearRect(0, 0, width, height);
+        var foreground = getTextFill();
+        var x = 0.0;
+        if (this.icon != null) {
+            var iconWidth = Math.min(this.icon.getWidth(), height);
+            var iconHeight = Math.min(this.icon.getHeight(), height);
+            gc.drawImage(this.icon, 0, Math.round((height - iconHeight) / 2), iconWidth, iconHeight);
+            x = iconWidth + ICON_SPACING;
+        }
+        var glyphsLeft = width - 3 * GLYPH_SIZE - 2 * GLYPH_SPACING;
+        var titleWidth = glyphsLeft - ICON_SPACING - x;
+        if (titleWidth > 0) {
+            gc.setFill(foreground);
+            gc.setFont(Font.getDefault());
+            gc.setTextBaseline(VPos.CENTER);
+            gc.fillText(resolveShownTitle(titleWidth), x, Math.round(height / 2));
+        }
+        var glyphX = glyphsLeft;
+        for (var glyph : Glyph.values()) {
+            drawGlyph(gc, glyph, glyphX, (height - GLYPH_SIZE) / 2, foreground);
+            glyphX += GLYPH_SIZE + GLYPH_SPACING;
+        }
+    }
+
+    private void drawGlyph(GraphicsContext gc, Glyph glyph, double x, double y, Paint foreground) {
+        var enabled = glyph != Glyph.MAXIMIZE || this.maximizable;
+        gc.setGlobalAlpha(enabled ? 1 : 0.4);
+        gc.setFill(getGlyphColor());
+        gc.fillOval(x, y, GLYPH_SIZE, GLYPH_SIZE);
+        if (glyph == this.hovered && enabled) {
+            //the glyph color can be a gradient, so the hover is an overlay, not a derived color
+            gc.setFill(this.darkTheme ? Color.rgb(255, 255, 255, 0.2) : Color.rgb(0, 0, 0, 0.1));
+            gc.fillOval(x, y, GLYPH_SIZE, GLYPH_SIZE);
+        }
+        gc.setStroke(foreground);
+        gc.setLineWidth(1);
+        //the centers of one pixel lines are at .5 to get sharp lines
+        var cx = Math.floor(x + GLYPH_SIZE / 2) + 0.5;
+        var cy = Math.floor(y + GLYPH_SIZE / 2) + 0.5;
+        switch (glyph) {
+            case CLOSE:
+                gc.strokeLine(cx - 4, cy - 4, cx + 4, cy + 4);
+                gc.strokeLine(cx - 4, cy + 4, cx + 4, cy - 4);
+                break;
+            case MINIMIZE:
+                gc.strokeLine(cx - 4, cy, cx + 4, cy);
+                break;
+            case MAXIMIZE:
+                if (this.maximized) {
+                    gc.strokeRect(cx - 4, cy - 2, 6, 6);
+                    gc.strokeLine(cx - 2, cy - 4, cx + 4, cy - 4);
+                    gc.strokeLine(cx + 4, cy - 4, cx + 4, cy + 2);
+                } else {
+                    gc.strokeRect(cx - 4, cy - 4, 8, 8);
+                }
+                break;
+            default:
+                break;
+        }
+        gc.setGlobalAlpha(1);
+    }
+
+    /**
+     * Returns the title that fits into the given width, the result is cached for the title and the width, so hover
+     * and state changes don't measure the title again.
+     */
+    private String resolveShownTitle(double width) {
+        if (this.shownTitle != null && this.shownTitleWidth == width && this.title.equals(this.shownTitleSource)) {
+            return this.shownTitle;
+        }
+        var text = this.title;
+        if (measure(text) > width) {
+            //the longest prefix that fits with the ellipsis is found by binary search
+            var low = 0;
+            var high = text.length() - 1;
+            while (low < high) {
+                var middle = (low + high + 1) / 2;
+                if (measure(text.substring(0, middle) + ELLIPSIS) <= width) {
+                    low = middle;
+                } else {
+                    high = middle - 1;
+                }
+            }
+            text = low > 0 ? text.substring(0, low) + ELLIPSIS : "";
+        }
+        this.shownTitle = text;
+        this.shownTitleSource = this.title;
+        this.shownTitleWidth = width;
+        return text;
+    }
+
+    private static double measure(String text) {
+        if (measuringText == null) {
+            measuringText = new Text();
+        }
+        measuringText.setFont(Font.getDefault());
+        measuringText.setText(text);
+        return measuringText.getLayoutBounds().getWidth();
+    }
+}
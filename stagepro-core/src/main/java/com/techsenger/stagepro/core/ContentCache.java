@@ -0,0 +1,144 @@
+/*
+ * Copyright 2024 Pavel Castornii.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.techsenger.stagepro.core;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import javafx.scene.Node;
+import javafx.scene.Parent;
+
+/**
+ * LRU cache of content nodes that are not shown at the moment. The nodes keep their skins and the rest of their
+ * state, so showing a cached node again is only attaching it to the scene graph. The cache is limited by the number
+ * of the nodes and by their total weight, the weight of the content is the number of the nodes in its tree.
+ *
+ * @author Pavel Castornii
+ */
+final class ContentCache {
+
+    private static final class Entry {
+
+        private final Node node;
+
+        private final int weight;
+
+        Entry(Node node, int weight) {
+            this.node = node;
+            this.weight = weight;
+        }
+    }
+
+    /**
+     * The entries from the least recently used one to the most recently used one.
+     */
+    private final Map<Object, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    private int maxSize;
+
+    /**
+     * The max total weight, 0 means no limit.
+     */
+    private int maxWeight;
+
+    private int weight = 0;
+
+    ContentCache(int maxSize, int maxWeight) {
+        this.maxSize = maxSize;
+        this.maxWeight = maxWeight;
+    }
+
+    int getMaxSize() {
+        return maxSize;
+    }
+
+    void setMaxSize(int maxSize) {
+        this.maxSize = maxSize;
+        evict();
+    }
+
+    int getMaxWeight() {
+        return maxWeight;
+    }
+
+    void setMaxWeight(int maxWeight) {
+        this.maxWeight = maxWeight;
+        evict();
+    }
+
+    /**
+     * Puts the content into the cache. The weight of the content is estimated now, when the content has been shown,
+     * so its skins are already created.
+     */
+    void put(Object key, Node node) {
+        remove(key);
+        var entry = new Entry(node, countNodes(node));
+        this.entries.put(key, entry);
+        this.weight += entry.weight;
+        evict();
+    }
+
+    /**
+     * Removes the content from the cache and returns it or returns null if there is no content with this key.
+     */
+    Node take(Object key) {
+        var entry = this.entries.remove(key);
+        if (entry == null) {
+            return null;
+        }
+        this.weight -= entry.weight;
+        return entry.node;
+    }
+
+    void remove(Object key) {
+        take(key);
+    }
+
+    void clear() {
+        this.entries.clear();
+        this.weight = 0;
+    }
+
+    int size() {
+        return this.entries.size();
+    }
+
+    private void evict() {
+        Iterator<Entry> i = this.entries.values().iterator();
+        while (i.hasNext() && (this.entries.size() > this.maxSize || (this.maxWeight > 0
+                && this.weight > this.maxWeight))) {
+            var entry = i.next();
+            this.weight -= entry.weight;
+            i.remove();
+        }
+    }
+
+    private static int countNodes(Node root) {
+        var count = 0;
+        var queue = new ArrayDeque<Node>();
+        queue.add(root);
+        while (!queue.isEmpty()) {
+            var node = queue.poll();
+            count++;
+            if (node instanceof Parent) {
+                queue.addAll(((Parent) node).getChildrenUnmodifiable());
+            }
+        }
+        return count;
+    }
+}
@@ -0,0 +1,160 @@
+/*
+ * Copyright 2024 Pavel Castornii.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.techsenger.stagepro.core;
+
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.Set;
+import javafx.animation.AnimationTimer;
+import javafx.util.Duration;
+
+/**
+ * The scheduler of non urgent FX thread work (index rebuilds, chart recomputation, cache warm-up etc.). The tasks are
+ * executed only when the user is not manipulating any StagePro window (no moving, resizing, size effect or bounds
+ * animation) and no more than the budget of one pulse is spent on them in one pulse, so the frames of the interaction
+ * are free of this work. At least one task is executed in every idle pulse.
+ *
+ * <p>This class must be used only on the FX thread.
+ *
+ * @author Pavel Castornii
+ */
+public final class IdleTaskScheduler {
+
+    private static final IdleTaskScheduler instance = new IdleTaskScheduler();
+
+    public static IdleTaskScheduler getDefault() {
+        return instance;
+    }
+
+    private final Deque<Runnable> tasks = new ArrayDeque<>();
+
+    private final AnimationTimer timer = new AnimationTimer() {
+
+        @Override
+        public void handle(long now) {
+            runTasks();
+        }
+    };
+
+    private long budgetNanos = 4_000_000;
+
+    /**
+     * The owners of the current interactions (a controller that is moved, a resizer, an animation etc.), the tasks
+     * are executed only when there are no owners. Every owner has one interaction at most, so an owner that is
+     * finished twice or is not finished because its release never came can't break the count.
+     */
+    private final Set<Object> interactionOwners = Collections.newSetFromMap(new IdentityHashMap<>());
+
+    private boolean timerRunning = false;
+
+    private IdleTaskScheduler() {
+        //empty
+    }
+
+    /**
+     * Adds the task to the end of the queue.
+     */
+    public void submit(Runnable task) {
+        this.tasks.addLast(task);
+        checkTimer();
+    }
+
+    /**
+     * Removes the task from the queue if it has not been executed yet.
+     */
+    public boolean cancel(Runnable task) {
+        var removed = this.tasks.remove(task);
+        checkTimer();
+        return removed;
+    }
+
+    public void clear() {
+        this.tasks.clear();
+        checkTimer();
+    }
+
+    public int getPendingCount() {
+        return this.tasks.size();
+    }
+
+    /**
+     * Returns true if the user is moving or resizing a window or a window animation is running.
+     */
+    public boolean isInteractionActive() {
+        return !this.interactionOwners.isEmpty();
+    }
+
+    public Duration getPulseBudget() {
+        return Duration.millis(budgetNanos / 1_000_000.0);
+    }
+
+    /**
+     * Sets the max time of the tasks in one pulse. The default value is 4 ms.
+     */
+    public void setPulseBudget(Duration budget) {
+        this.budgetNanos = (long) (budget.toMillis() * 1_000_000);
+    }
+
+    /**
+     * Starts the interaction of the owner, it does nothing if the owner already has one.
+     */
+    void interactionStarted(Object owner) {
+        if (this.interactionOwners.add(owner)) {
+            checkTimer();
+        }
+    }
+
+    /**
+     * Finishes the interaction of the owner, it does nothing if the owner has none.
+     */
+    void interactionFinished(Object owner) {
+        if (this.interactionOwners.remove(owner)) {
+            checkTimer();
+        }
+    }
+
+    private void checkTimer() {
+        var required = !this.tasks.isEmpty() && this.interactionOwners.isEmpty();
+        if (required && !this.timerRunning) {
+            this.timerRunning = true;
+            this.timer.start();
+        } else if (!required && this.timerRunning) {
+            this.timerRunning = false;
+            this.timer.stop();
+        }
+    }
+
+    private void runTasks() {
+        var start = System.nanoTime();
+        do {
+            var task = this.tasks.pollFirst();
+            if (task == null) {
+                break;
+            }
+            try {
+                task.run();
+            } catch (RuntimeException ex) {
+                //one failed task must not stop the others
+                var thread = Thread.currentThread();
+                thread.getUncaughtExceptionHandler().uncaughtException(thread, ex);
+            }
+        } while (this.interactionOwners.isEmpty() && System.nanoTime() - start < this.budgetNanos);
+        checkTimer();
+    }
+}
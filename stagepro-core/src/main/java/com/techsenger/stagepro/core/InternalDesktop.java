@@ -0,0 +1,125 @@
+/*
+ * Copyright 2024 Pavel Castornii.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.techsenger.stagepro.core;
+
+import java.util.ArrayList;
+import java.util.List;
+import javafx.animation.Animation;
+import javafx.animation.Interpolator;
+import javafx.animation.Transition;
+import javafx.geometry.Bounds;
+import javafx.scene.layout.Pane;
+import javafx.scene.layout.Region;
+import javafx.util.Duration;
+
+/**
+ * The container of {@link InternalWindow}s. The StagePro stylesheet is the user agent stylesheet of the desktop, so
+ * the windows can be themed by the stylesheets of the scene in the same way as StagePro stages.
+ *
+ * @author Pavel Castornii
+ */
+public class InternalDesktop extends Pane {
+
+
+    /**
+     * The preview of the maximized window, it is created when the size effect is shown for the first time.
+     */
+    private Region sizeEffectRegion;
+
+    /**
+     * Grows the preview from the bounds of the dragged window to the whole desktop, in the same time as the size effect
+     * of a stage.
+     */
+    private Transition sizeEffectTransition;
+
+    private Bounds sizeEffectStart;
+
+    public InternalDesktop() {
+        getStyleClass().add("internal-desktop");
+    }
+
+    /**
+     * Returns all the windows of the desktop from the bottom one to the topmost one.
+     */
+    public List<InternalWindow> getWindows() {
+        var result = new ArrayList<InternalWindow>();
+        for (var child : getChildren()) {
+            if (child instanceof InternalWindow) {
+                result.add((InternalWindow) child);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public String getUserAgentStylesheet() {
+        return StageChrome.STYLESHEET;
+    }
+
+    /**
+     * Shows the size effect that grows from the bounds of the window to the whole desktop or hides it at once.
+     */
+    void setSizeEffectVisible(boolean visible, InternalWindow window) {
+        if (this.sizeEffectRegion == null) {
+            if (!visible) {
+                return;
+            }
+            this.sizeEffectRegion = new Region();
+            this.sizeEffectRegion.getStyleClass().add("size-effect");
+            this.sizeEffectRegion.setManaged(false);
+            this.sizeEffectRegion.setMouseTransparent(true);
+            this.sizeEffectTransition = new Transition() {
+
+                @Override
+                protected void interpolate(double frac) {
+                    var start = InternalDesktop.this.sizeEffectStart;
+                    var width = InternalDesktop.this.getWidth();
+                    var height = InternalDesktop.this.getHeight();
+                    InternalDesktop.this.sizeEffectRegion.resizeRelocate(start.getMinX() * (1 - frac),
+                            start.getMinY() * (1 - frac), start.getWidth() + (width - start.getWidth()) * frac,
+                            start.getHeight() + (height - start.getHeight()) * frac);
+                }
+            };
+            this.sizeEffectTransition.setCycleDuration(Duration.millis(400));
+            this.sizeEffectTransition.setInterpolator(Interpolator.LINEAR);
+        }
+        if (visible && this.sizeEffectRegion.getParent() == null) {
+            //the dragged window is the topmost one, the preview is just below it
+            getChildren().add(Math.max(0, getChildren().size() - 1), this.sizeEffectRegion);
+            this.sizeEffectStart = window.getBoundsInParent();
+            this.sizeEffectTransition.playFromStart();
+        } else if (!visible && this.sizeEffectRegion.getParent() != null) {
+            this.sizeEffectTransition.stop();
+            getChildren().remove(this.sizeEffectRegion);
+        }
+    }
+
+    @Override
+    protected void layoutChildren() {
+        //windows that are not maximized are sized by their pref sizes
+        super.layoutChildren();
+        for (var child : getChildren()) {
+            if (child instanceof InternalWindow && ((InternalWindow) child).isMaximized()) {
+                child.resizeRelocate(0, 0, getWidth(), getHeight());
+            }
+        }
+        //while the preview grows its bounds are set by the transition
+        if (this.sizeEffectRegion != null && this.sizeEffectTransition.getStatus() != Animation.Status.RUNNING) {
+            this.sizeEffectRegion.resizeRelocate(0, 0, getWidth(), getHeight());
+        }
+    }
+}
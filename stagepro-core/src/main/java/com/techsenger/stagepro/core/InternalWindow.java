@@ -0,0 +1,389 @@
+/*
+ * Copyright 2024 Pavel Castornii.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.techsenger.stagepro.core;
+
+import javafx.beans.binding.Bindings;
+import javafx.beans.property.BooleanProperty;
+import javafx.beans.property.ObjectProperty;
+import javafx.beans.property.SimpleBooleanProperty;
+import javafx.beans.property.SimpleObjectProperty;
+import javafx.beans.value.ChangeListener;
+import javafx.css.PseudoClass;
+import javafx.event.EventHandler;
+import javafx.geometry.BoundingBox;
+import javafx.geometry.Bounds;
+import javafx.scene.Node;
+import javafx.scene.control.Button;
+import javafx.scene.control.Label;
+import javafx.scene.image.ImageView;
+import javafx.scene.input.MouseButton;
+import javafx.scene.input.MouseEvent;
+import javafx.scene.layout.VBox;
+import javafx.stage.Window;
+import javafx.stage.WindowEvent;
+
+/**
+ * A window inside a scene with the same title bar, buttons, theming, resizing, dragging and size effect as a stage
+ * of {@link StandardStageController}. Internal windows are hosted by {@link InternalDesktop}. Hundreds of internal
+ * windows cost much less than hundreds of native windows.
+ *
+ * @author Pavel Castornii
+ */
+public class InternalWindow extends VBox {
+
+    private static final PseudoClass maximizedClass = PseudoClass.getPseudoClass("maximized");
+
+    private final TitleBar titleBar = new TitleBar();
+
+    private final VBox contentArea = new VBox();
+
+    private final ImageView iconView = new ImageView();
+
+    private final Label titleLabel = new Label();
+
+    private final Button minimizeButton = new Button();
+
+    private final MaximizeButton maximizeButton = new MaximizeButton(MaximizeButton.ResizableStatePolicy.VISIBILITY);
+
+    private final Button closeButton = new Button();
+
+    private final ObjectProperty<Node> content = new SimpleObjectProperty<>();
+
+    private final BooleanProperty darkTheme = new SimpleBooleanProperty(false);
+
+    private final BooleanProperty maximized = new SimpleBooleanProperty(false);
+
+    private final BooleanProperty minimized = new SimpleBooleanProperty(false);
+
+    private final BooleanProperty resizable = new SimpleBooleanProperty(true);
+
+    /**
+     * Indicates if the size effect is enabled. This effect is shown when the window is dragged to the top of the
+     * desktop, it grows from the bounds of the window to the whole desktop like the size effect of a stage.
+     */
+    private final BooleanProperty sizeEffectEnabled = new SimpleBooleanProperty(false);
+
+    private final RegionResizer resizer;
+
+    private final EventHandler<WindowEvent> windowHiddenHandler = (e) -> cancelInteractions();
+
+    /**
+     * Moves the hidden handler to the window of the scene.
+     */
+    private final ChangeListener<Window> windowListener = (ov, oldV, newV) -> {
+        if (oldV != null) {
+            oldV.removeEventHandler(WindowEvent.WINDOW_HIDDEN, this.windowHiddenHandler);
+        }
+        if (newV != null) {
+            newV.addEventHandler(WindowEvent.WINDOW_HIDDEN, this.windowHiddenHandler);
+        }
+    };
+
+    /**
+     * The bounds the window had before it was maximized.
+     */
+    private Bounds restoreBounds;
+
+    private double pressedX;
+
+    private double pressedY;
+
+    private double pressedMouseX;
+
+    private double pressedMouseY;
+
+    private boolean moving = false;
+
+    private boolean maximizeOnRelease = false;
+
+    public InternalWindow(double width, double height) {
+        this(width, height, true);
+    }
+
+    public InternalWindow(double width, double height, boolean initTitleBar) {
+        super();
+        this.resizer = new RegionResizer(this, (e) -> fireEvent(new StageResizeEvent(
+                StageResizeEvent.STAGE_RESIZING_STARTED, e)), (e) -> fireEvent(new StageResizeEvent(
+                StageResizeEvent.STAGE_RESIZING_FINISHED, e)));
+        setPrefSize(width, height);
+        build();
+        bind();
+        addListeners();
+        addHandlers();
+        if (initTitleBar) {
+            this.titleBar.getLeading().add(this.iconView);
+            this.titleBar.getCenter().add(this.titleLabel);
+            this.titleBar.getTrailing().addAll(this.minimizeButton, this.maximizeButton, this.closeButton);
+        }
+    }
+
+    public ObjectProperty<Node> contentProperty() {
+        return content;
+    }
+
+    public Node getContent() {
+        return content.get();
+    }
+
+    public void setContent(Node content) {
+        this.content.set(content);
+    }
+
+    public BooleanProperty darkThemeProperty() {
+        return darkTheme;
+    }
+
+    public boolean isDarkTheme() {
+        return darkTheme.get();
+    }
+
+    public void setDarkTheme(boolean dark) {
+        darkTheme.set(dark);
+    }
+
+    public BooleanProperty maximizedProperty() {
+        return maximized;
+    }
+
+    public boolean isMaximized() {
+        return maximized.get();
+    }
+
+    public void setMaximized(boolean maximized) {
+        this.maximized.set(maximized);
+    }
+
+    public BooleanProperty minimizedProperty() {
+        return minimized;
+    }
+
+    public boolean isMinimized() {
+        return minimized.get();
+    }
+
+    /**
+     * Minimizes (hides) the window or restores it. The desktop has no task bar, so the application is responsible
+     * for restoring minimized windows.
+     */
+    public void setMinimized(boolean minimized) {
+        this.minimized.set(minimized);
+    }
+
+    public BooleanProperty resizableProperty() {
+        return resizable;
+    }
+
+    public boolean isResizable() {
+        return resizable.get();
+    }
+
+    public void setResizable(boolean resizable) {
+        this.resizable.set(resizable);
+    }
+
+    public BooleanProperty sizeEffectEnabledProperty() {
+        return sizeEffectEnabled;
+    }
+
+    public boolean isSizeEffectEnabled() {
+        return sizeEffectEnabled.get();
+    }
+
+    public void setSizeEffectEnabled(boolean enabled) {
+        sizeEffectEnabled.set(enabled);
+    }
+
+    public TitleBar getTitleBar() {
+        return titleBar;
+    }
+
+    public ImageView getIconView() {
+        return iconView;
+    }
+
+    public Label getTitleLabel() {
+        return titleLabel;
+    }
+
+    public Button getMinimizeButton() {
+        return minimizeButton;
+    }
+
+    public MaximizeButton getMaximizeButton() {
+        return maximizeButton;
+    }
+
+    public Button getCloseButton() {
+        return closeButton;
+    }
+
+    /**
+     * Removes the window from its desktop.
+     */
+    public void close() {
+        var desktop = getDesktop();
+        if (desktop != null) {
+            desktop.getChildren().remove(this);
+        }
+    }
+
+    protected AbstractResizer getResizer() {
+        return resizer;
+    }
+
+    private void build() {
+        StageChrome.buildStageBox(this, this.contentArea, "internal-window");
+        getChildren().addAll(this.titleBar, this.contentArea);
+        StageChrome.buildTitleNodes(this.iconView, this.titleLabel, this.closeButton);
+        this.minimizeButton.getStyleClass().add("minimize-button");
+        setMinSize(150, 100);
+        this.resizer.initialize();
+        checkMaximizeButton();
+    }
+
+    private void bind() {
+        this.resizer.disabledProperty().bind(this.maximized.or(Bindings.not(this.resizable)));
+        visibleProperty().bind(Bindings.not(this.minimized));
+        managedProperty().bind(Bindings.not(this.minimized));
+    }
+
+    private void addListeners() {
+        this.content.addListener((ov, oldV, newV) -> StageChrome.setContent(this.contentArea, newV));
+        this.darkTheme.addListener((ov, oldV, newV) -> StageChrome.setDarkTheme(this, newV));
+        this.maximized.addListener((ov, oldV, newV) -> {
+            pseudoClassStateChanged(maximizedClass, newV);
+            if (newV) {
+                this.restoreBounds = new BoundingBox(getLayoutX(), getLayoutY(), getWidth(), getHeight());
+            } else if (this.restoreBounds != null) {
+                relocate(this.restoreBounds.getMinX(), this.restoreBounds.getMinY());
+                setPrefSize(this.restoreBounds.getWidth(), this.restoreBounds.getHeight());
+            }
+            //the desktop lays out maximized windows
+            var desktop = getDesktop();
+            if (desktop != null) {
+                desktop.requestLayout();
+            }
+        });
+        this.resizable.addListener((ov, oldV, newV) -> checkMaximizeButton());
+        sceneProperty().addListener((ov, oldV, newV) -> {
+            if (oldV != null) {
+                oldV.windowProperty().removeListener(this.windowListener);
+                this.windowListener.changed(null, oldV.getWindow(), null);
+            }
+            if (newV != null) {
+                newV.windowProperty().addListener(this.windowListener);
+                this.windowListener.changed(null, null, newV.getWindow());
+            } else {
+                cancelInteractions();
+            }
+        });
+        this.maximizeButton.setPolicyHandler(() -> checkMaximizeButton());
+    }
+
+    private void addHandlers() {
+        this.minimizeButton.setOnAction(e -> setMinimized(true));
+        this.maximizeButton.setOnAction(e -> setMaximized(!isMaximized()));
+        this.closeButton.setOnAction(e -> close());
+        //the window that gets a mouse press is moved to front
+        addEventFilter(MouseEvent.MOUSE_PRESSED, e -> toFront());
+        this.titleBar.setOnMousePressed(e -> doOnTitleBarMousePressed(e));
+        this.titleBar.setOnMouseDragged(e -> doOnTitleBarMouseDragged(e));
+        this.titleBar.setOnMouseReleased(e -> doOnTitleBarMouseReleased(e));
+        this.titleBar.addEventFilter(MouseEvent.MOUSE_CLICKED, e -> {
+            if (e.getButton() == MouseButton.PRIMARY && e.getClickCount() == 2 && isResizable()) {
+                setMaximized(!isMaximized());
+                e.consume();
+            }
+        });
+    }
+
+    private void doOnTitleBarMousePressed(MouseEvent event) {
+        this.moving = false;
+        this.maximizeOnRelease = false;
+        this.pressedMouseX = event.getSceneX();
+        this.pressedMouseY = event.getSceneY();
+        this.pressedX = getLayoutX();
+        this.pressedY = getLayoutY();
+        event.consume();
+    }
+
+    private void doOnTitleBarMouseDragged(MouseEvent event) {
+        if (isMaximized()) {
+            event.consume();
+            return;
+        }
+        if (!this.moving) {
+            this.moving = true;
+            IdleTaskScheduler.getDefault().interactionStarted(this);
+            fireEvent(new StageMoveEvent(StageMoveEvent.STAGE_MOVING_STARTED, event));
+        }
+        //the title bar is kept inside the desktop
+        var x = this.pressedX + event.getSceneX() - this.pressedMouseX;
+        var y = Math.max(0, this.pressedY + event.getSceneY() - this.pressedMouseY);
+        relocate(Math.round(x), Math.round(y));
+        var desktop = getDesktop();
+        if (isSizeEffectEnabled() && isResizable() && desktop != null) {
+            this.maximizeOnRelease = desktop.sceneToLocal(event.getSceneX(), event.getSceneY()).getY() <= 0;
+            desktop.setSizeEffectVisible(this.maximizeOnRelease, this);
+        }
+        event.consume();
+    }
+
+    private void doOnTitleBarMouseReleased(MouseEvent event) {
+        if (this.maximizeOnRelease) {
+            this.maximizeOnRelease = false;
+            setMaximized(true);
+        }
+        finishMoving(event);
+        event.consume();
+    }
+
+    /**
+     * Hides the size effect and finishes moving, the event is null if the window was removed or hidden before the
+     * release.
+     */
+    private void finishMoving(MouseEvent event) {
+        var desktop = getDesktop();
+        if (desktop != null) {
+            desktop.setSizeEffectVisible(false, this);
+        }
+        if (this.moving) {
+            this.moving = false;
+            fireEvent(new StageMoveEvent(StageMoveEvent.STAGE_MOVING_FINISHED, event));
+            IdleTaskScheduler.getDefault().interactionFinished(this);
+        }
+    }
+
+    /**
+     * Finishes moving and resizing when the window is removed from the scene or the window of the scene is hidden,
+     * because the release will not come.
+     */
+    private void cancelInteractions() {
+        this.maximizeOnRelease = false;
+        this.resizer.cancelResizing();
+        finishMoving(null);
+    }
+
+    private InternalDesktop getDesktop() {
+        var parent = getParent();
+        return parent instanceof InternalDesktop ? (InternalDesktop) parent : null;
+    }
+
+    private void checkMaximizeButton() {
+        StageChrome.checkMaximizeButton(this.maximizeButton, isResizable());
+    }
+}
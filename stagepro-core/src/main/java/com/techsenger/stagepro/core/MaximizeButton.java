@@ -16,9 +16,7 @@
 
 package com.techsenger.stagepro.core;
 
-import javafx.beans.property.IntegerProperty;
 import javafx.beans.property.ObjectProperty;
-import javafx.beans.property.SimpleIntegerProperty;
 import javafx.beans.property.SimpleObjectProperty;
 import javafx.scene.Node;
 import javafx.scene.control.Button;
@@ -47,13 +45,14 @@ public class MaximizeButton extends Button {
         INTERACTIVITY
     }
 
-    private final ObjectProperty<ResizableStatePolicy> policy = new SimpleObjectProperty<>();
-
     /**
-     * The index of the button in button box. It is required to add/remove button according to its policy.
-     * Button with index -1 will be ignored.
+     * The property is created only when it is requested, till then the value is kept in the field.
      */
-    private final IntegerProperty index = new SimpleIntegerProperty(-1);
+    private ObjectProperty<ResizableStatePolicy> policy;
+
+    private ResizableStatePolicy policyValue;
+
+    private Runnable policyHandler;
 
     public MaximizeButton() {
 
@@ -69,31 +68,46 @@ public class MaximizeButton extends Button {
 
     public MaximizeButton(ResizableStatePolicy policy, String string, Node node) {
         super(string, node);
-        this.policy.set(policy);
+        this.policyValue = policy;
         getStyleClass().add("maximize-button");
     }
 
     public ObjectProperty<ResizableStatePolicy> policyProperty() {
+        if (this.policy == null) {
+            this.policy = new SimpleObjectProperty<>(this.policyValue) {
+
+                @Override
+                protected void invalidated() {
+                    policyValue = get();
+                    if (policyHandler != null) {
+                        policyHandler.run();
+                    }
+                }
+            };
+        }
         return policy;
     }
 
     public ResizableStatePolicy getPolicy() {
-        return policy.get();
+        return this.policy == null ? this.policyValue : this.policy.get();
     }
 
     public void setPolicy(ResizableStatePolicy policy) {
-        this.policy.set(policy);
-    }
-
-    IntegerProperty indexProperty() {
-        return index;
+        if (this.policy != null) {
+            this.policy.set(policy);
+        } else if (this.policyValue != policy) {
+            this.policyValue = policy;
+            if (this.policyHandler != null) {
+                this.policyHandler.run();
+            }
+        }
     }
 
-    int getIndex() {
-        return index.get();
-    }
-
-    void setIndex(int index) {
-        this.index.set(index);
+    /**
+     * Sets the handler that is called when the policy is changed, it is used by the controller instead of a listener,
+     * so the property is not created.
+     */
+    void setPolicyHandler(Runnable handler) {
+        this.policyHandler = handler;
     }
 }
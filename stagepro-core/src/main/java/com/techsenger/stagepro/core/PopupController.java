@@ -0,0 +1,242 @@
+/*
+ * Copyright 2024 Pavel Castornii.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.techsenger.stagepro.core;
+
+import javafx.beans.property.BooleanProperty;
+import javafx.beans.property.ObjectProperty;
+import javafx.beans.property.SimpleBooleanProperty;
+import javafx.beans.property.SimpleObjectProperty;
+import javafx.geometry.Side;
+import javafx.scene.Node;
+import javafx.scene.control.Button;
+import javafx.scene.control.Label;
+import javafx.scene.image.ImageView;
+import javafx.scene.input.MouseEvent;
+import javafx.scene.layout.VBox;
+import javafx.stage.Popup;
+import javafx.stage.Window;
+import javafx.stage.WindowEvent;
+
+/**
+ * A popup (floating inspector, autocomplete panel, resizable tooltip etc.) with StagePro title bar, CSS, dragging,
+ * resizing and resize events. A popup is created much faster than a transparent stage. The controller can be shown
+ * many times at different anchors without being recreated.
+ *
+ * @author Pavel Castornii
+ */
+public class PopupController {
+
+    private final Popup popup = new Popup();
+
+    private final TitleBar titleBar = new TitleBar();
+
+    private final VBox contentArea = new VBox();
+
+    private final VBox stageBox = new VBox(titleBar, contentArea);
+
+    private final ImageView iconView = new ImageView();
+
+    private final Label titleLabel = new Label();
+
+    private final Button closeButton = new Button();
+
+    private final ObjectProperty<Node> content = new SimpleObjectProperty<>();
+
+    private final BooleanProperty darkTheme = new SimpleBooleanProperty(false);
+
+    private final PopupResizer resizer;
+
+    private double pressedX;
+
+    private double pressedY;
+
+    private double pressedMouseX;
+
+    private double pressedMouseY;
+
+    private boolean moving = false;
+
+    public PopupController(double width, double height) {
+        this(width, height, true);
+    }
+
+    public PopupController(double width, double height, boolean initTitleBar) {
+        this.resizer = new PopupResizer(this.popup, this.stageBox,
+                (e) -> this.popup.fireEvent(new StageResizeEvent(StageResizeEvent.STAGE_RESIZING_STARTED, e)),
+                (e) -> this.popup.fireEvent(new StageResizeEvent(StageResizeEvent.STAGE_RESIZING_FINISHED, e)));
+        this.stageBox.setPrefSize(width, height);
+        build();
+        addListeners();
+        addHandlers();
+        if (initTitleBar) {
+            this.titleBar.getLeading().add(this.iconView);
+            this.titleBar.getCenter().add(this.titleLabel);
+            this.titleBar.getTrailing().add(this.closeButton);
+        }
+    }
+
+    public Popup getPopup() {
+        return popup;
+    }
+
+    public ObjectProperty<Node> contentProperty() {
+        return content;
+    }
+
+    public Node getContent() {
+        return content.get();
+    }
+
+    public void setContent(Node content) {
+        this.content.set(content);
+    }
+
+    public BooleanProperty darkThemeProperty() {
+        return darkTheme;
+    }
+
+    public boolean isDarkTheme() {
+        return darkTheme.get();
+    }
+
+    public void setDarkTheme(boolean dark) {
+        darkTheme.set(dark);
+    }
+
+    public TitleBar getTitleBar() {
+        return titleBar;
+    }
+
+    public ImageView getIconView() {
+        return iconView;
+    }
+
+    public Label getTitleLabel() {
+        return titleLabel;
+    }
+
+    public Button getCloseButton() {
+        return closeButton;
+    }
+
+    /**
+     * Shows the popup at the given screen position. If the popup is showing, it is just moved.
+     */
+    public void show(Window owner, double screenX, double screenY) {
+        if (this.popup.isShowing()) {
+            this.popup.setX(screenX);
+            this.popup.setY(screenY);
+        } else {
+            this.popup.show(owner, screenX, screenY);
+        }
+    }
+
+    /**
+     * Shows the popup next to the anchor node on the given side. If the popup is showing, it is re-anchored.
+     */
+    public void show(Node anchor, Side side) {
+        var bounds = anchor.localToScreen(anchor.getBoundsInLocal());
+        var width = this.stageBox.prefWidth(-1);
+        var height = this.stageBox.prefHeight(-1);
+        double x;
+        double y;
+        switch (side) {
+            case TOP:
+                x = bounds.getMinX();
+                y = bounds.getMinY() - height;
+                break;
+            case LEFT:
+                x = bounds.getMinX() - width;
+                y = bounds.getMinY();
+                break;
+            case RIGHT:
+                x = bounds.getMaxX();
+                y = bounds.getMinY();
+                break;
+            default:
+                x = bounds.getMinX();
+                y = bounds.getMaxY();
+                break;
+        }
+        show(anchor.getScene().getWindow(), x, y);
+    }
+
+    public void hide() {
+        this.popup.hide();
+    }
+
+    private void build() {
+        this.popup.getContent().add(this.stageBox);
+        this.popup.getScene().getStylesheets().add(StageChrome.STYLESHEET);
+        StageChrome.buildStageBox(this.stageBox, this.contentArea, "popup");
+        StageChrome.buildTitleNodes(this.iconView, this.titleLabel, this.closeButton);
+        this.resizer.initialize();
+    }
+
+    private void addListeners() {
+        this.content.addListener((ov, oldV, newV) -> StageChrome.setContent(this.contentArea, newV));
+        this.darkTheme.addListener((ov, oldV, newV) -> StageChrome.setDarkTheme(this.stageBox, newV));
+    }
+
+    private void addHandlers() {
+        this.closeButton.setOnAction(e -> hide());
+        this.titleBar.setOnMousePressed(e -> {
+            this.moving = false;
+            this.pressedMouseX = e.getScreenX();
+            this.pressedMouseY = e.getScreenY();
+            this.pressedX = this.popup.getX();
+            this.pressedY = this.popup.getY();
+            e.consume();
+        });
+        this.titleBar.setOnMouseDragged(e -> doOnTitleBarMouseDragged(e));
+        this.titleBar.setOnMouseReleased(e -> {
+            finishMoving(e);
+            e.consume();
+        });
+        //the popup can be hidden (for example, by auto hide) before the release
+        this.popup.addEventHandler(WindowEvent.WINDOW_HIDDEN, e -> {
+            this.resizer.cancelResizing();
+            finishMoving(null);
+        });
+    }
+
+    /**
+     * Finishes moving, the event is null if the popup was hidden before the release.
+     */
+    private void finishMoving(MouseEvent event) {
+        if (this.moving) {
+            this.moving = false;
+            this.popup.fireEvent(new StageMoveEvent(StageMoveEvent.STAGE_MOVING_FINISHED, event));
+            IdleTaskScheduler.getDefault().interactionFinished(this);
+        }
+    }
+
+    private void doOnTitleBarMouseDragged(MouseEvent event) {
+        if (!this.moving) {
+            this.moving = true;
+            IdleTaskScheduler.getDefault().interactionStarted(this);
+            this.popup.fireEvent(new StageMoveEvent(StageMoveEvent.STAGE_MOVING_STARTED, event));
+        }
+        var scaleX = this.popup.getOutputScaleX();
+        var scaleY = this.popup.getOutputScaleY();
+        var x = this.pressedX + event.getScreenX() - this.pressedMouseX;
+        var y = this.pressedY + event.getScreenY() - this.pressedMouseY;
+        this.popup.setX(Math.round(x * scaleX) / scaleX);
+        this.popup.setY(Math.round(y * scaleY) / scaleY);
+        event.consume();
+    }
+}
@@ -0,0 +1,153 @@
+/*
+ * Copyright 2024 Pavel Castornii.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.techsenger.stagepro.core;
+
+import javafx.event.Event;
+import javafx.event.EventHandler;
+import javafx.event.EventType;
+import javafx.scene.Cursor;
+import javafx.scene.input.InputEvent;
+import javafx.scene.input.MouseEvent;
+import javafx.scene.layout.Region;
+import javafx.stage.PopupWindow;
+
+/**
+ * Resizer of a popup window. The size of the popup follows the bounds of its content, so the resizer changes the pref
+ * size of the root region of the popup and the position of the popup itself.
+ *
+ * @author Pavel Castornii
+ */
+class PopupResizer extends AbstractResizer {
+
+    private final PopupWindow popup;
+
+    private final Region root;
+
+    PopupResizer(PopupWindow popup, Region root, EventHandler<? super InputEvent> startedHandler,
+            EventHandler<? super InputEvent> finishedHandler) {
+        super(root.minWidthProperty(), root.minHeightProperty(), root.maxWidthProperty(), root.maxHeightProperty(),
+                startedHandler, finishedHandler);
+        this.popup = popup;
+        this.root = root;
+    }
+
+    /**
+     * Initializes resizer by adding its filters to the root region.
+     */
+    public void initialize() {
+        setFiltersEnabled(true);
+    }
+
+    /**
+     * Deinitializes resizer by removing all its filters from the root region.
+     */
+    public void deinitialize() {
+        setFiltersEnabled(false);
+    }
+
+    @Override
+    protected double getWidth() {
+        return this.root.getWidth();
+    }
+
+    @Override
+    protected void setWidth(double width) {
+        this.root.setPrefWidth(width);
+        this.root.resize(width, this.root.getHeight());
+    }
+
+    @Override
+    protected double getHeight() {
+        return this.root.getHeight();
+    }
+
+    @Override
+    protected void setHeight(double height) {
+        this.root.setPrefHeight(height);
+        this.root.resize(this.root.getWidth(), height);
+    }
+
+    @Override
+    protected void setCursor(Cursor cursor) {
+        this.root.setCursor(cursor == Cursor.DEFAULT ? null : cursor);
+    }
+
+    @Override
+    protected double getX() {
+        return this.popup.getX();
+    }
+
+    @Override
+    protected void setX(double x) {
+        this.popup.setX(x);
+    }
+
+    @Override
+    protected double getY() {
+        return this.popup.getY();
+    }
+
+    @Override
+    protected void setY(double y) {
+        this.popup.setY(y);
+    }
+
+    @Override
+    protected double getMouseX(MouseEvent event) {
+        return event.getScreenX();
+    }
+
+    @Override
+    protected double getMouseY(MouseEvent event) {
+        return event.getScreenY();
+    }
+
+    @Override
+    protected double getOutputScaleX() {
+        return this.popup.getOutputScaleX();
+    }
+
+    @Override
+    protected double getOutputScaleY() {
+        return this.popup.getOutputScaleY();
+    }
+
+    @Override
+    protected <T extends Event> void addEventFilter(EventType<T> type, EventHandler<? super T> filter) {
+        this.root.addEventFilter(type, filter);
+    }
+
+    @Override
+    protected <T extends Event> void removeEventFilter(EventType<T> type, EventHandler<? super T> filter) {
+        this.root.removeEventFilter(type, filter);
+    }
+
+    @Override
+    protected double getComputedMinWidth() {
+        return this.root.minWidth(-1);
+    }
+
+    @Override
+    protected double getComputedMinHeight() {
+        return this.root.minHeight(-1);
+    }
+
+    @Override
+    protected double getMargin() {
+        return 4;
+    }
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright 2024 Pavel Castornii.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.techsenger.stagepro.core;
+
+import java.util.ArrayList;
+import java.util.List;
+import javafx.animation.AnimationTimer;
+
+/**
+ * Collects changes of several stages and applies all of them in the next pulse, so the changes are rendered in the
+ * same frame. The changes are only deferred, not coalesced: every stage still makes its own native calls, one after
+ * another.
+ *
+ * <p>This class must be used only on the FX thread.
+ *
+ * @author Pavel Castornii
+ */
+final class PulseBatch {
+
+    private static final List<Runnable> pending = new ArrayList<>();
+
+    private static AnimationTimer timer;
+
+    /**
+     * Adds the action to the batch that will be executed in the next pulse.
+     */
+    static void run(Runnable action) {
+        pending.add(action);
+        if (timer == null) {
+            timer = new AnimationTimer() {
+
+                @Override
+                public void handle(long now) {
+                    stop();
+                    //actions can add new actions, they will be executed in the next pulse
+                    var actions = new ArrayList<>(pending);
+                    pending.clear();
+                    for (var a : actions) {
+                        a.run();
+                    }
+                }
+            };
+        }
+        timer.start();
+    }
+
+    private PulseBatch() {
+        //empty
+    }
+}
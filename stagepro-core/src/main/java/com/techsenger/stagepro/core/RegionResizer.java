@@ -0,0 +1,144 @@
+/*
+ * Copyright 2024 Pavel Castornii.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.techsenger.stagepro.core;
+
+import javafx.event.Event;
+import javafx.event.EventHandler;
+import javafx.event.EventType;
+import javafx.scene.Cursor;
+import javafx.scene.input.InputEvent;
+import javafx.scene.input.MouseEvent;
+import javafx.scene.layout.Region;
+
+/**
+ * Resizer of a region that is positioned by its layout x/y and sized by its pref size, for example, an
+ * {@link InternalWindow} in a {@link javafx.scene.layout.Pane}.
+ *
+ * @author Pavel Castornii
+ */
+class RegionResizer extends AbstractResizer {
+
+    private Region region;
+
+    RegionResizer(Region region, EventHandler<? super InputEvent> startedHandler,
+            EventHandler<? super InputEvent> finishedHandler) {
+        super(region.minWidthProperty(), region.minHeightProperty(), region.maxWidthProperty(),
+                region.maxHeightProperty(), startedHandler, finishedHandler);
+        this.region = region;
+    }
+
+    /**
+     * Initializes resizer by adding its filters to the region.
+     */
+    public void initialize() {
+        setFiltersEnabled(true);
+    }
+
+    /**
+     * Deinitializes resizer by removing all its filters from the region.
+     */
+    public void deinitialize() {
+        setFiltersEnabled(false);
+    }
+
+    @Override
+    protected double getWidth() {
+        return this.region.getWidth();
+    }
+
+    @Override
+    protected void setWidth(double width) {
+        //the pref size is kept by the parent, the region is resized at once to avoid waiting for the layout
+        this.region.setPrefWidth(width);
+        this.region.resize(width, this.region.getHeight());
+    }
+
+    @Override
+    protected double getHeight() {
+        return this.region.getHeight();
+    }
+
+    @Override
+    protected void setHeight(double height) {
+        this.region.setPrefHeight(height);
+        this.region.resize(this.region.getWidth(), height);
+    }
+
+    @Override
+    protected void setCursor(Cursor cursor) {
+        this.region.setCursor(cursor == Cursor.DEFAULT ? null : cursor);
+    }
+
+    @Override
+    protected double getX() {
+        return this.region.getLayoutX();
+    }
+
+    @Override
+    protected void setX(double x) {
+        this.region.setLayoutX(x);
+    }
+
+    @Override
+    protected double getY() {
+        return this.region.getLayoutY();
+    }
+
+    @Override
+    protected void setY(double y) {
+        this.region.setLayoutY(y);
+    }
+
+    @Override
+    protected double getMouseX(MouseEvent event) {
+        return event.getSceneX();
+    }
+
+    @Override
+    protected double getMouseY(MouseEvent event) {
+        return event.getSceneY();
+    }
+
+    @Override
+    protected <T extends Event> void addEventFilter(EventType<T> type, EventHandler<? super T> filter) {
+        this.region.addEventFilter(type, filter);
+    }
+
+    @Override
+    protected <T extends Event> void removeEventFilter(EventType<T> type, EventHandler<? super T> filter) {
+        this.region.removeEventFilter(type, filter);
+    }
+
+    @Override
+    protected double getComputedMinWidth() {
+        return this.region.minWidth(-1);
+    }
+
+    @Override
+    protected double getComputedMinHeight() {
+        return this.region.minHeight(-1);
+    }
+
+    @Override
+    protected double getMargin() {
+        return 4;
+    }
+
+    protected Region getRegion() {
+        return region;
+    }
+}
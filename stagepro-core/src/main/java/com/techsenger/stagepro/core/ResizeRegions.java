@@ -0,0 +1,116 @@
+/*
+ * Copyright 2024 Pavel Castornii.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.techsenger.stagepro.core;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import javafx.beans.value.ChangeListener;
+import javafx.geometry.Insets;
+import javafx.scene.input.MouseEvent;
+import javafx.scene.layout.Region;
+
+/**
+ * Thin transparent regions over the edges and corners of the stage box that forward their mouse events to the
+ * resizer. Mouse events of the content never reach the resizer and the cursors are set by the regions themselves.
+ *
+ * @author Pavel Castornii
+ */
+final class ResizeRegions {
+
+    private static final int[] EDGES = {
+        AbstractResizer.NORTH | AbstractResizer.WEST,
+        AbstractResizer.NORTH,
+        AbstractResizer.NORTH | AbstractResizer.EAST,
+        AbstractResizer.EAST,
+        AbstractResizer.SOUTH | AbstractResizer.EAST,
+        AbstractResizer.SOUTH,
+        AbstractResizer.SOUTH | AbstractResizer.WEST,
+        AbstractResizer.WEST
+    };
+
+    private final AbstractResizer resizer;
+
+    private final List<Region> regions = new ArrayList<>(EDGES.length);
+
+    private final ChangeListener<Boolean> disabledListener = (ov, oldV, newV) -> updateVisibility();
+
+    ResizeRegions(AbstractResizer resizer) {
+        this.resizer = resizer;
+        for (var edges : EDGES) {
+            var region = new Region();
+            region.getStyleClass().add("resize-region");
+            region.setCursor(AbstractResizer.resolveCursor(edges));
+            region.setManaged(false);
+            //touches are handled by the touch filters of the resizer, so the mouse events made from them are skipped
+            region.addEventHandler(MouseEvent.MOUSE_PRESSED, (e) -> {
+                if (!resizer.checkSynthesized(e)) {
+                    resizer.mousePressed(e, edges);
+                }
+            });
+            region.addEventHandler(MouseEvent.MOUSE_DRAGGED, (e) -> {
+                if (!resizer.checkSynthesized(e)) {
+                    resizer.mouseDragged(e);
+                }
+            });
+            region.addEventHandler(MouseEvent.MOUSE_RELEASED, (e) -> {
+                if (!resizer.checkSynthesized(e)) {
+                    resizer.mouseReleased(e);
+                }
+            });
+            this.regions.add(region);
+        }
+        resizer.disabledProperty().addListener(this.disabledListener);
+        updateVisibility();
+    }
+
+    List<Region> getRegions() {
+        return Collections.unmodifiableList(regions);
+    }
+
+    /**
+     * Lays out the regions within the given size, the insets (for example, a shadow) are a part of the regions.
+     */
+    void layout(double width, double height, Insets insets) {
+        var margin = this.resizer.getMargin();
+        var left = insets.getLeft() + margin;
+        var right = insets.getRight() + margin;
+        var top = insets.getTop() + margin;
+        var bottom = insets.getBottom() + margin;
+        var middleWidth = Math.max(0, width - left - right);
+        var middleHeight = Math.max(0, height - top - bottom);
+        this.regions.get(0).resizeRelocate(0, 0, left, top);
+        this.regions.get(1).resizeRelocate(left, 0, middleWidth, top);
+        this.regions.get(2).resizeRelocate(width - right, 0, right, top);
+        this.regions.get(3).resizeRelocate(width - right, top, right, middleHeight);
+        this.regions.get(4).resizeRelocate(width - right, height - bottom, right, bottom);
+        this.regions.get(5).resizeRelocate(left, height - bottom, middleWidth, bottom);
+        this.regions.get(6).resizeRelocate(0, height - bottom, left, bottom);
+        this.regions.get(7).resizeRelocate(0, top, left, middleHeight);
+    }
+
+    void dispose() {
+        this.resizer.disabledProperty().removeListener(this.disabledListener);
+    }
+
+    private void updateVisibility() {
+        var visible = !this.resizer.isDisabled();
+        for (var r : this.regions) {
+            r.setVisible(visible);
+        }
+    }
+}
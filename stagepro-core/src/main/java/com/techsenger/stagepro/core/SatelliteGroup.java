@@ -0,0 +1,186 @@
+/*
+ * Copyright 2024 Pavel Castornii.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.techsenger.stagepro.core;
+
+import java.util.ArrayList;
+import java.util.List;
+import javafx.beans.value.ChangeListener;
+import javafx.geometry.HPos;
+import javafx.geometry.Pos;
+import javafx.geometry.VPos;
+import javafx.stage.Stage;
+
+/**
+ * Stages (tool palettes, inspectors, floating panels etc.) that are attached to the owner stage and follow it.
+ *
+ * <p>When the owner is moved or resized by its controller, the controller suspends the listeners of the owner and
+ * calls {@link #update()} once after all the bounds are set, so the satellites get their new positions in the same
+ * pulse as the owner. Listeners are used only for the changes that are made by others (the OS, maximizing,
+ * application code).
+ *
+ * @author Pavel Castornii
+ */
+final class SatelliteGroup {
+
+    private static final class Satellite {
+
+        private final Stage stage;
+
+        private final Pos anchor;
+
+        private double offsetX;
+
+        private double offsetY;
+
+        private ChangeListener<Number> positionListener;
+
+        Satellite(Stage stage, Pos anchor) {
+            this.stage = stage;
+            this.anchor = anchor;
+        }
+    }
+
+    private final Stage owner;
+
+    private final List<Satellite> satellites = new ArrayList<>();
+
+    /**
+     * True when the satellites are being moved by this group.
+     */
+    private boolean updating = false;
+
+    /**
+     * True when the owner is being moved by its controller.
+     */
+    private boolean ownerSuspended = false;
+
+    SatelliteGroup(Stage owner) {
+        this.owner = owner;
+        ChangeListener<Number> ownerListener = (ov, oldV, newV) -> {
+            if (!this.ownerSuspended) {
+                update();
+            }
+        };
+        owner.xProperty().addListener(ownerListener);
+        owner.yProperty().addListener(ownerListener);
+        owner.widthProperty().addListener(ownerListener);
+        owner.heightProperty().addListener(ownerListener);
+        owner.iconifiedProperty().addListener((ov, oldV, newV) -> {
+            for (var s : this.satellites) {
+                if (s.stage.isShowing()) {
+                    s.stage.setIconified(newV);
+                }
+            }
+        });
+    }
+
+    void attach(Stage stage, Pos anchor, double offsetX, double offsetY) {
+        detach(stage);
+        var satellite = new Satellite(stage, anchor);
+        satellite.offsetX = offsetX;
+        satellite.offsetY = offsetY;
+        //when the user moves the satellite, its new offset is saved
+        satellite.positionListener = (ov, oldV, newV) -> {
+            if (!this.updating) {
+                satellite.offsetX = stage.getX() - resolveAnchorX(anchor);
+                satellite.offsetY = stage.getY() - resolveAnchorY(anchor);
+            }
+        };
+        stage.xProperty().addListener(satellite.positionListener);
+        stage.yProperty().addListener(satellite.positionListener);
+        this.satellites.add(satellite);
+        update(satellite);
+    }
+
+    /**
+     * Attaches the stage keeping its current position relative to the anchor point of the owner.
+     */
+    void attach(Stage stage, Pos anchor) {
+        attach(stage, anchor, stage.getX() - resolveAnchorX(anchor), stage.getY() - resolveAnchorY(anchor));
+    }
+
+    void detach(Stage stage) {
+        for (var i = this.satellites.iterator(); i.hasNext();) {
+            var s = i.next();
+            if (s.stage == stage) {
+                stage.xProperty().removeListener(s.positionListener);
+                stage.yProperty().removeListener(s.positionListener);
+                i.remove();
+            }
+        }
+    }
+
+    List<Stage> getStages() {
+        var result = new ArrayList<Stage>(this.satellites.size());
+        for (var s : this.satellites) {
+            result.add(s.stage);
+        }
+        return result;
+    }
+
+    boolean isEmpty() {
+        return this.satellites.isEmpty();
+    }
+
+    /**
+     * Suspends or resumes listening to the bounds of the owner.
+     */
+    void setOwnerSuspended(boolean suspended) {
+        this.ownerSuspended = suspended;
+    }
+
+    /**
+     * Moves all the satellites according to the current bounds of the owner.
+     */
+    void update() {
+        for (var s : this.satellites) {
+            update(s);
+        }
+    }
+
+    private void update(Satellite satellite) {
+        this.updating = true;
+        try {
+            satellite.stage.setX(resolveAnchorX(satellite.anchor) + satellite.offsetX);
+            satellite.stage.setY(resolveAnchorY(satellite.anchor) + satellite.offsetY);
+        } finally {
+            this.updating = false;
+        }
+    }
+
+    private double resolveAnchorX(Pos anchor) {
+        var hpos = anchor.getHpos();
+        if (hpos == HPos.CENTER) {
+            return owner.getX() + owner.getWidth() / 2;
+        } else if (hpos == HPos.RIGHT) {
+            return owner.getX() + owner.getWidth();
+        } else {
+            return owner.getX();
+        }
+    }
+
+    private double resolveAnchorY(Pos anchor) {
+        var vpos = anchor.getVpos();
+        if (vpos == VPos.CENTER) {
+            return owner.getY() + owner.getHeight() / 2;
+        } else if (vpos == VPos.BOTTOM || vpos == VPos.BASELINE) {
+            return owner.getY() + owner.getHeight();
+        } else {
+            return owner.getY();
+        }
+    }
+}
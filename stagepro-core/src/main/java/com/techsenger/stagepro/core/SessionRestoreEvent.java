@@ -0,0 +1,100 @@
+/*
+ * Copyright 2024 Pavel Castornii.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.techsenger.stagepro.core;
+
+import javafx.event.Event;
+import javafx.event.EventType;
+
+/**
+ * The progress event of {@link SessionRestorer}.
+ *
+ * @author Pavel Castornii
+ */
+public class SessionRestoreEvent extends Event {
+
+    /**
+     * Common supertype for all session restore event types.
+     */
+    public static final EventType<SessionRestoreEvent> ANY = new EventType<>(Event.ANY, "SESSION_RESTORE");
+
+    /**
+     * This event occurs when the stage of a window is created and shown, its content can be not restored yet.
+     */
+    public static final EventType<SessionRestoreEvent> WINDOW_SHOWN =
+            new EventType<>(SessionRestoreEvent.ANY, "WINDOW_SHOWN");
+
+    /**
+     * This event occurs when the content of a window is restored.
+     */
+    public static final EventType<SessionRestoreEvent> CONTENT_RESTORED =
+            new EventType<>(SessionRestoreEvent.ANY, "CONTENT_RESTORED");
+
+    /**
+     * This event occurs when the window or its content could not be prepared or created.
+     */
+    public static final EventType<SessionRestoreEvent> CONTENT_FAILED =
+            new EventType<>(SessionRestoreEvent.ANY, "CONTENT_FAILED");
+
+    /**
+     * This event occurs when all the windows are restored.
+     */
+    public static final EventType<SessionRestoreEvent> RESTORE_FINISHED =
+            new EventType<>(SessionRestoreEvent.ANY, "RESTORE_FINISHED");
+
+    private final BaseStageController controller;
+
+    private final int restoredCount;
+
+    private final int totalCount;
+
+    private final Throwable exception;
+
+    public SessionRestoreEvent(EventType<? extends SessionRestoreEvent> eventType, BaseStageController controller,
+            int restoredCount, int totalCount, Throwable exception) {
+        super(eventType);
+        this.controller = controller;
+        this.restoredCount = restoredCount;
+        this.totalCount = totalCount;
+        this.exception = exception;
+    }
+
+    /**
+     * Returns the controller of the window or null for {@link #RESTORE_FINISHED} and for {@link #CONTENT_FAILED} when
+     * the window could not be created.
+     */
+    public BaseStageController getController() {
+        return controller;
+    }
+
+    /**
+     * Returns the number of the windows whose content is restored (or failed).
+     */
+    public int getRestoredCount() {
+        return restoredCount;
+    }
+
+    public int getTotalCount() {
+        return totalCount;
+    }
+
+    /**
+     * Returns the exception for {@link #CONTENT_FAILED}, otherwise null.
+     */
+    public Throwable getException() {
+        return exception;
+    }
+}
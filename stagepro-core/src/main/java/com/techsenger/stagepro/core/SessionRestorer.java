@@ -0,0 +1,320 @@
+/*
+ * Copyright 2024 Pavel Castornii.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.techsenger.stagepro.core;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import javafx.animation.AnimationTimer;
+import javafx.event.EventHandler;
+import javafx.event.EventType;
+import javafx.scene.Node;
+import javafx.util.Duration;
+
+/**
+ * Restores a workspace of many StagePro windows without blocking the FX thread until all of them are built. The
+ * windows are restored in the order of their priorities: the stage of a window is created and shown first, then its
+ * content is created. The work is done in slices, every slice takes no more than the budget of one pulse (at least
+ * one step is done in every slice), so the focused window is usable after the first slice regardless of the number
+ * of the windows.
+ *
+ * <p>The data for the content can be prepared off the FX thread, the content is created on the FX thread when the
+ * data is ready. Windows whose data is not ready are skipped until the next slice.
+ *
+ * <p>This class must be used only on the FX thread.
+ *
+ * @author Pavel Castornii
+ */
+public class SessionRestorer {
+
+    /**
+     * The priority of a restored window.
+     */
+    public enum RestorePriority {
+
+        /**
+         * The window that had the focus, it is restored first and is kept in front of other restored windows.
+         */
+        FOCUSED,
+
+        /**
+         * A window that was visible on the screen.
+         */
+        VISIBLE,
+
+        /**
+         * A window that was covered by other windows or was iconified.
+         */
+        BACKGROUND
+    }
+
+    private static final class Entry<T> {
+
+        private final RestorePriority priority;
+
+        private final Supplier<? extends BaseStageController> windowFactory;
+
+        private final Callable<T> preparer;
+
+        private final Function<? super T, ? extends Node> contentFactory;
+
+        private CompletableFuture<T> preparation;
+
+        private BaseStageController controller;
+
+        private boolean restored = false;
+
+        Entry(RestorePriority priority, Supplier<? extends BaseStageController> windowFactory, Callable<T> preparer,
+                Function<? super T, ? extends Node> contentFactory) {
+            this.priority = priority;
+            this.windowFactory = windowFactory;
+            this.preparer = preparer;
+            this.contentFactory = contentFactory;
+        }
+
+        void prepare(Executor executor) {
+            if (this.preparer != null && this.preparation == null) {
+                this.preparation = CompletableFuture.supplyAsync(() -> {
+                    try {
+                        return this.preparer.call();
+                    } catch (Exception ex) {
+                        throw new CompletionException(ex);
+                    }
+                }, executor);
+            }
+        }
+
+        boolean isContentReady() {
+            return this.preparation == null || this.preparation.isDone();
+        }
+
+        /**
+         * Creates the content, the exception of the preparation is thrown as {@link CompletionException}.
+         */
+        Node createContent() {
+            var data = this.preparation == null ? null : this.preparation.join();
+            return this.contentFactory.apply(data);
+        }
+    }
+
+    private final List<Entry<?>> entries = new ArrayList<>();
+
+    private final AnimationTimer timer = new AnimationTimer() {
+
+        @Override
+        public void handle(long now) {
+            runSlice();
+        }
+    };
+
+    private Executor executor = ForkJoinPool.commonPool();
+
+    private long budgetNanos = 8_000_000;
+
+    private EventHandler<? super SessionRestoreEvent> onProgress;
+
+    private boolean started = false;
+
+    private int restoredCount = 0;
+
+    /**
+     * The controller of the first focused window, it is kept in front of other restored windows.
+     */
+    private BaseStageController focusedController;
+
+    /**
+     * Adds a window whose content is created on the FX thread. The window factory must not show the stage.
+     */
+    public void add(RestorePriority priority, Supplier<? extends BaseStageController> windowFactory,
+            Supplier<? extends Node> contentFactory) {
+        add(new Entry<Void>(priority, windowFactory, null, (data) -> contentFactory.get()));
+    }
+
+    /**
+     * Adds a window whose content data is prepared by the preparer off the FX thread and then the content is created
+     * from this data on the FX thread. The window factory must not show the stage.
+     */
+    public <T> void add(RestorePriority priority, Supplier<? extends BaseStageController> windowFactory,
+            Callable<T> preparer, Function<? super T, ? extends Node> contentFactory) {
+        add(new Entry<>(priority, windowFactory, preparer, contentFactory));
+    }
+
+    /**
+     * Starts the restore. The first slice is done at once, the next ones - in the next pulses.
+     */
+    public void start() {
+        if (this.started) {
+            return;
+        }
+        this.started = true;
+        for (var e : this.entries) {
+            e.prepare(this.executor);
+        }
+        runSlice();
+    }
+
+    /**
+     * Cancels the restore, the windows that are already shown stay as they are.
+     */
+    public void cancel() {
+        this.timer.stop();
+        for (var e : this.entries) {
+            if (e.preparation != null) {
+                e.preparation.cancel(false);
+            }
+        }
+        this.entries.clear();
+        this.started = false;
+        this.restoredCount = 0;
+        this.focusedController = null;
+    }
+
+    public Executor getExecutor() {
+        return executor;
+    }
+
+    /**
+     * Sets the executor of the content preparers. The default one is the common fork-join pool.
+     */
+    public void setExecutor(Executor executor) {
+        this.executor = executor;
+    }
+
+    public Duration getPulseBudget() {
+        return Duration.millis(budgetNanos / 1_000_000.0);
+    }
+
+    /**
+     * Sets the max time of the work in one pulse. The default value is 8 ms.
+     */
+    public void setPulseBudget(Duration budget) {
+        this.budgetNanos = (long) (budget.toMillis() * 1_000_000);
+    }
+
+    public EventHandler<? super SessionRestoreEvent> getOnProgress() {
+        return onProgress;
+    }
+
+    public void setOnProgress(EventHandler<? super SessionRestoreEvent> handler) {
+        this.onProgress = handler;
+    }
+
+    private void add(Entry<?> entry) {
+        //the entries are kept in the order of the priorities, the entries with the same priority - in the added order
+        var index = this.entries.size();
+        while (index > 0 && this.entries.get(index - 1).priority.compareTo(entry.priority) > 0) {
+            index--;
+        }
+        this.entries.add(index, entry);
+        if (this.started) {
+            entry.prepare(this.executor);
+            this.timer.start();
+        }
+    }
+
+    private void runSlice() {
+        var start = System.nanoTime();
+        var othersShown = false;
+        //a copy, because the progress handler can add windows
+        for (var e : new ArrayList<>(this.entries)) {
+            if (e.restored) {
+                continue;
+            }
+            if (e.controller == null) {
+                var shown = showWindow(e);
+                othersShown |= shown && e.controller != this.focusedController;
+                //the restore can be cancelled by the progress handler
+                if (!this.started || System.nanoTime() - start >= this.budgetNanos) {
+                    break;
+                }
+                if (!shown) {
+                    continue;
+                }
+            }
+            if (e.isContentReady()) {
+                restoreContent(e);
+                if (!this.started || System.nanoTime() - start >= this.budgetNanos) {
+                    break;
+                }
+            }
+        }
+        if (othersShown && this.focusedController != null) {
+            //the windows that are shown later must not cover the focused one
+            this.focusedController.getStage().toFront();
+        }
+        if (!this.started) {
+            //the restore was cancelled by the progress handler
+            return;
+        }
+        if (this.restoredCount == this.entries.size()) {
+            this.timer.stop();
+            fire(SessionRestoreEvent.RESTORE_FINISHED, null, null);
+        } else {
+            this.timer.start();
+        }
+    }
+
+    /**
+     * Creates and shows the window. If the window can't be created, the entry is done and false is returned.
+     */
+    private boolean showWindow(Entry<?> entry) {
+        try {
+            entry.controller = entry.windowFactory.get();
+        } catch (RuntimeException ex) {
+            //the factory is not called again, otherwise it would fail in every pulse
+            entry.restored = true;
+            this.restoredCount++;
+            if (entry.preparation != null) {
+                entry.preparation.cancel(false);
+            }
+            fire(SessionRestoreEvent.CONTENT_FAILED, null, ex);
+            return false;
+        }
+        if (entry.priority == RestorePriority.FOCUSED && this.focusedController == null) {
+            this.focusedController = entry.controller;
+        }
+        entry.controller.getStage().show();
+        fire(SessionRestoreEvent.WINDOW_SHOWN, entry.controller, null);
+        return true;
+    }
+
+    private void restoreContent(Entry<?> entry) {
+        entry.restored = true;
+        this.restoredCount++;
+        try {
+            entry.controller.setContent(entry.createContent());
+            fire(SessionRestoreEvent.CONTENT_RESTORED, entry.controller, null);
+        } catch (CompletionException ex) {
+            fire(SessionRestoreEvent.CONTENT_FAILED, entry.controller, ex.getCause());
+        } catch (RuntimeException ex) {
+            fire(SessionRestoreEvent.CONTENT_FAILED, entry.controller, ex);
+        }
+    }
+
+    private void fire(EventType<SessionRestoreEvent> type, BaseStageController controller, Throwable exception) {
+        if (this.onProgress != null) {
+            this.onProgress.handle(new SessionRestoreEvent(type, controller, this.restoredCount, this.entries.size(),
+                    exception));
+        }
+    }
+}
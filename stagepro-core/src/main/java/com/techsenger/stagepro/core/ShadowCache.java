@@ -0,0 +1,96 @@
+/*
+ * Copyright 2024 Pavel Castornii.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.techsenger.stagepro.core;
+
+import java.util.HashMap;
+import java.util.Map;
+import javafx.geometry.Insets;
+import javafx.scene.Group;
+import javafx.scene.SnapshotParameters;
+import javafx.scene.effect.BlurType;
+import javafx.scene.effect.DropShadow;
+import javafx.scene.image.Image;
+import javafx.scene.layout.Border;
+import javafx.scene.layout.BorderImage;
+import javafx.scene.layout.BorderRepeat;
+import javafx.scene.layout.BorderWidths;
+import javafx.scene.paint.Color;
+import javafx.scene.shape.Rectangle;
+
+/**
+ * Renders stage shadows into nine-patch images. An image is rendered once for every radius, color and render scale
+ * and then it is only stretched around the stage by a {@link BorderImage}, so the shadow costs nearly nothing when
+ * the stage is resized.
+ *
+ * <p>This class must be used only on the FX thread.
+ *
+ * @author Pavel Castornii
+ */
+final class ShadowCache {
+
+    /**
+     * The max radius of the {@link DropShadow}.
+     */
+    private static final double MAX_EFFECT_RADIUS = 127;
+
+    private static final Map<String, Border> borders = new HashMap<>();
+
+    /**
+     * Returns the border that draws the shadow of the given radius around the content of a region.
+     */
+    static Border getBorder(double radius, Color color, double scale) {
+        var key = radius + ":" + color + ":" + scale;
+        var border = borders.get(key);
+        if (border == null) {
+            border = createBorder(radius, color, scale);
+            borders.put(key, border);
+        }
+        return border;
+    }
+
+    private static Border createBorder(double radius, Color color, double scale) {
+        var pixelRadius = Math.min(MAX_EFFECT_RADIUS, Math.ceil(radius * scale));
+        var image = render(pixelRadius, color);
+        //slices are in image pixels, widths are in layout units
+        var borderImage = new BorderImage(image, new BorderWidths(pixelRadius / scale), Insets.EMPTY,
+                new BorderWidths(pixelRadius), false, BorderRepeat.STRETCH, BorderRepeat.STRETCH);
+        return new Border(borderImage);
+    }
+
+    /**
+     * Renders a square whose side is twice the radius with the shadow around it. The center of the image (the
+     * square) is not used. The radius is in pixels.
+     */
+    private static Image render(double pixelRadius, Color color) {
+        var size = 4 * pixelRadius;
+        //the transparent rectangle sets the bounds of the image
+        var bounds = new Rectangle(size, size, Color.TRANSPARENT);
+        var square = new Rectangle(pixelRadius, pixelRadius, 2 * pixelRadius, 2 * pixelRadius);
+        square.setFill(Color.BLACK);
+        square.setEffect(new DropShadow(BlurType.GAUSSIAN, color, pixelRadius, 0, 0, 0));
+        var group = new Group(bounds, square);
+        //the clip guarantees that the image is exactly 4 radiuses wide and high
+        group.setClip(new Rectangle(size, size));
+        var parameters = new SnapshotParameters();
+        parameters.setFill(Color.TRANSPARENT);
+        return group.snapshot(parameters, null);
+    }
+
+    private ShadowCache() {
+        //empty
+    }
+}
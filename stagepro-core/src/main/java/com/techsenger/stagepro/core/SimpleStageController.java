@@ -44,8 +44,9 @@ public class SimpleStageController extends BaseStageController {
         bind();
         addHandlers();
         if (initTitleBar) {
-            getButtonBox().getChildren().add(closeButton);
-            getTitleBar().getChildren().addAll(iconView, titleLabel, new Spacer(), getButtonBox());
+            getTitleBar().getLeading().add(iconView);
+            getTitleBar().getCenter().add(titleLabel);
+            getTitleBar().getTrailing().add(closeButton);
         }
     }
 
@@ -62,9 +63,7 @@ public class SimpleStageController extends BaseStageController {
     }
 
     private void build() {
-        this.iconView.getStyleClass().add("icon-view");
-        this.titleLabel.getStyleClass().add("title-label");
-        this.closeButton.getStyleClass().add("close-button");
+        StageChrome.buildTitleNodes(this.iconView, this.titleLabel, this.closeButton);
     }
 
     private void bind() {
@@ -0,0 +1,223 @@
+/*
+ * Copyright 2024 Pavel Castornii.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.techsenger.stagepro.core;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import javafx.geometry.Rectangle2D;
+import javafx.stage.Screen;
+
+/**
+ * A spatial index of the edges of the stages that is used for snapping. Vertical edges (x positions) and horizontal
+ * edges (y positions) are kept in two lists sorted by position, so the candidates near a position are found by
+ * binary search. When the bounds of a stage change, the stage is only marked as dirty and its edges are updated on
+ * the next query, the stage that is being moved is not updated at all until it is used as a candidate.
+ *
+ * <p>This class must be used only on the FX thread.
+ *
+ * @author Pavel Castornii
+ */
+final class SnapIndex<T> {
+
+    private static final class Edge {
+
+        private final double position;
+
+        private final double min;
+
+        private final double max;
+
+        private final Object owner;
+
+        Edge(double position, double min, double max, Object owner) {
+            this.position = position;
+            this.min = min;
+            this.max = max;
+            this.owner = owner;
+        }
+    }
+
+    private final List<Edge> verticalEdges = new ArrayList<>();
+
+    private final List<Edge> horizontalEdges = new ArrayList<>();
+
+    /**
+     * Owner -> its four edges: left, right, top, bottom.
+     */
+    private final Map<T, Edge[]> edgesByOwner = new HashMap<>();
+
+    private final Set<T> dirty = new LinkedHashSet<>();
+
+    private final Function<T, Rectangle2D> boundsResolver;
+
+    SnapIndex(Function<T, Rectangle2D> boundsResolver) {
+        this.boundsResolver = boundsResolver;
+    }
+
+    void add(T owner) {
+        dirty.remove(owner);
+        update(owner);
+    }
+
+    void remove(T owner) {
+        dirty.remove(owner);
+        var edges = edgesByOwner.remove(owner);
+        if (edges != null) {
+            removeEdge(verticalEdges, edges[0]);
+            removeEdge(verticalEdges, edges[1]);
+            removeEdge(horizontalEdges, edges[2]);
+            removeEdge(horizontalEdges, edges[3]);
+        }
+    }
+
+    void markDirty(T owner) {
+        if (edgesByOwner.containsKey(owner)) {
+            dirty.add(owner);
+        }
+    }
+
+    /**
+     * Returns the x position of the nearest vertical edge within the distance or the given x. Only the edges whose
+     * vertical span overlaps the given span are used, the edges of the excluded owner are ignored. The edges of the
+     * screens are used as well.
+     */
+    double snapX(T excluded, double x, double minY, double maxY, double distance) {
+        refresh(excluded);
+        var result = findNearest(verticalEdges, excluded, x, minY, maxY, distance);
+        for (var screen : Screen.getScreens()) {
+            var b = screen.getVisualBounds();
+            if (b.getMinY() <= maxY && b.getMaxY() >= minY) {
+                result = nearer(x, result, b.getMinX(), distance);
+                result = nearer(x, result, b.getMaxX(), distance);
+            }
+        }
+        return Double.isNaN(result) ? x : result;
+    }
+
+    /**
+     * Returns the y position of the nearest horizontal edge within the distance or the given y.
+     */
+    double snapY(T excluded, double y, double minX, double maxX, double distance) {
+        refresh(excluded);
+        var result = findNearest(horizontalEdges, excluded, y, minX, maxX, distance);
+        for (var screen : Screen.getScreens()) {
+            var b = screen.getVisualBounds();
+            if (b.getMinX() <= maxX && b.getMaxX() >= minX) {
+                result = nearer(y, result, b.getMinY(), distance);
+                result = nearer(y, result, b.getMaxY(), distance);
+            }
+        }
+        return Double.isNaN(result) ? y : result;
+    }
+
+    private void refresh(T excluded) {
+        if (dirty.isEmpty()) {
+            return;
+        }
+        var iterator = dirty.iterator();
+        while (iterator.hasNext()) {
+            var owner = iterator.next();
+            if (owner != excluded) {
+                iterator.remove();
+                update(owner);
+            }
+        }
+    }
+
+    private void update(T owner) {
+        var old = edgesByOwner.get(owner);
+        if (old != null) {
+            removeEdge(verticalEdges, old[0]);
+            removeEdge(verticalEdges, old[1]);
+            removeEdge(horizontalEdges, old[2]);
+            removeEdge(horizontalEdges, old[3]);
+        }
+        var b = boundsResolver.apply(owner);
+        var edges = new Edge[] {
+            new Edge(b.getMinX(), b.getMinY(), b.getMaxY(), owner),
+            new Edge(b.getMaxX(), b.getMinY(), b.getMaxY(), owner),
+            new Edge(b.getMinY(), b.getMinX(), b.getMaxX(), owner),
+            new Edge(b.getMaxY(), b.getMinX(), b.getMaxX(), owner)
+        };
+        insertEdge(verticalEdges, edges[0]);
+        insertEdge(verticalEdges, edges[1]);
+        insertEdge(horizontalEdges, edges[2]);
+        insertEdge(horizontalEdges, edges[3]);
+        edgesByOwner.put(owner, edges);
+    }
+
+    private double findNearest(List<Edge> edges, Object excluded, double position, double spanMin, double spanMax,
+            double distance) {
+        var result = Double.NaN;
+        for (int i = lowerBound(edges, position - distance); i < edges.size(); i++) {
+            var edge = edges.get(i);
+            if (edge.position > position + distance) {
+                break;
+            }
+            if (edge.owner != excluded && edge.min <= spanMax + distance && edge.max >= spanMin - distance) {
+                result = nearer(position, result, edge.position, distance);
+            }
+        }
+        return result;
+    }
+
+    private double nearer(double position, double current, double candidate, double distance) {
+        var diff = Math.abs(candidate - position);
+        if (diff > distance) {
+            return current;
+        }
+        if (Double.isNaN(current) || diff < Math.abs(current - position)) {
+            return candidate;
+        }
+        return current;
+    }
+
+    private void insertEdge(List<Edge> edges, Edge edge) {
+        edges.add(lowerBound(edges, edge.position), edge);
+    }
+
+    private void removeEdge(List<Edge> edges, Edge edge) {
+        for (int i = lowerBound(edges, edge.position); i < edges.size(); i++) {
+            if (edges.get(i) == edge) {
+                edges.remove(i);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Returns the index of the first edge whose position is not less than the given one.
+     */
+    private int lowerBound(List<Edge> edges, double position) {
+        var low = 0;
+        var high = edges.size();
+        while (low < high) {
+            var mid = (low + high) >>> 1;
+            if (edges.get(mid).position < position) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+}
@@ -0,0 +1,198 @@
+/*
+ * Copyright 2024 Pavel Castornii.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.techsenger.stagepro.core;
+
+import java.util.HashMap;
+import java.util.Map;
+import javafx.collections.ListChangeListener;
+import javafx.geometry.Rectangle2D;
+import javafx.stage.Screen;
+
+/**
+ * Snap zones of the screens that are used when a stage is dragged by its title bar with enabled snap zones (see
+ * {@link BaseStageController#setSnapZonesEnabled(boolean)}). Dragging the mouse to the left or right edge of a screen
+ * snaps the stage to the half of the screen, to a corner - to the quarter, to the top edge - maximizes the stage or,
+ * if columns are set for the screen, snaps it to the column under the mouse (for example, thirds).
+ *
+ * <p>The zones of every screen are computed once and kept in a table, so the zone under the mouse is found in constant
+ * time while dragging. The zones are recomputed when the screens are changed.
+ *
+ * <p>This class must be used only on the FX thread.
+ *
+ * @author Pavel Castornii
+ */
+public final class SnapZones {
+
+    /**
+     * A zone, its bounds are in screen coordinates.
+     */
+    static final class Zone {
+
+        private final Rectangle2D bounds;
+
+        private final Rectangle2D area;
+
+        private final boolean maximizing;
+
+        Zone(Rectangle2D bounds, Rectangle2D area, boolean maximizing) {
+            this.bounds = bounds;
+            this.area = area;
+            this.maximizing = maximizing;
+        }
+
+        Rectangle2D getBounds() {
+            return bounds;
+        }
+
+        /**
+         * Returns the visual bounds of the screen of this zone.
+         */
+        Rectangle2D getArea() {
+            return area;
+        }
+
+        /**
+         * Returns true if the stage is maximized in this zone instead of getting the bounds.
+         */
+        boolean isMaximizing() {
+            return maximizing;
+        }
+    }
+
+    /**
+     * The zones of one screen: 3x3 table (rows top, middle, bottom; columns left, middle, right) and the optional
+     * columns of the top edge.
+     */
+    private static final class ScreenZones {
+
+        private final Rectangle2D bounds;
+
+        private final Rectangle2D visualBounds;
+
+        private final Zone[] table = new Zone[9];
+
+        private Zone[] columns;
+
+        ScreenZones(Rectangle2D bounds, Rectangle2D visualBounds) {
+            this.bounds = bounds;
+            this.visualBounds = visualBounds;
+        }
+    }
+
+    /**
+     * The distance from the edge of the screen at which the edge zones are activated.
+     */
+    private static final double EDGE_SIZE = 1;
+
+    /**
+     * The length of the corner zones along the edges.
+     */
+    private static final double CORNER_SIZE = 40;
+
+    /**
+     * The columns are kept by the bounds of the screens, because JavaFX replaces the screen instances when the screen
+     * configuration changes. So the settings survive such changes and no old screen is kept in memory.
+     */
+    private static final Map<Rectangle2D, Integer> columnsByScreenBounds = new HashMap<>();
+
+    private static Map<Screen, ScreenZones> zonesByScreen;
+
+    /**
+     * Sets the number of the columns of the top edge of the screen, for example, 3 for thirds. 0 or 1 means that the
+     * top edge maximizes the stage.
+     */
+    public static void setColumns(Screen screen, int columns) {
+        columnsByScreenBounds.put(screen.getBounds(), columns);
+        zonesByScreen = null;
+    }
+
+    public static int getColumns(Screen screen) {
+        var columns = columnsByScreenBounds.get(screen.getBounds());
+        return columns == null ? 0 : columns;
+    }
+
+    /**
+     * Returns the zone under the mouse or null if there is no zone.
+     */
+    static Zone find(double screenX, double screenY) {
+        if (zonesByScreen == null) {
+            compute();
+        }
+        for (var zones : zonesByScreen.values()) {
+            if (zones.bounds.contains(screenX, screenY)) {
+                return find(zones, screenX, screenY);
+            }
+        }
+        return null;
+    }
+
+    private static Zone find(ScreenZones zones, double x, double y) {
+        var area = zones.visualBounds;
+        var row = y <= area.getMinY() + EDGE_SIZE ? 0 : (y >= area.getMaxY() - EDGE_SIZE ? 2 : 1);
+        var column = x <= area.getMinX() + EDGE_SIZE ? 0 : (x >= area.getMaxX() - EDGE_SIZE ? 2 : 1);
+        if (row != 1) {
+            //on the top or bottom edge the corners are longer
+            column = x <= area.getMinX() + CORNER_SIZE ? 0 : (x >= area.getMaxX() - CORNER_SIZE ? 2 : 1);
+            if (row == 0 && column == 1 && zones.columns != null) {
+                var index = (int) ((x - area.getMinX()) / area.getWidth() * zones.columns.length);
+                return zones.columns[Math.max(0, Math.min(zones.columns.length - 1, index))];
+            }
+        } else if (column != 1) {
+            row = y <= area.getMinY() + CORNER_SIZE ? 0 : (y >= area.getMaxY() - CORNER_SIZE ? 2 : 1);
+        }
+        return zones.table[row * 3 + column];
+    }
+
+    private static void compute() {
+        zonesByScreen = new HashMap<>();
+        for (var screen : Screen.getScreens()) {
+            var zones = new ScreenZones(screen.getBounds(), screen.getVisualBounds());
+            var area = zones.visualBounds;
+            var halfWidth = area.getWidth() / 2;
+            var halfHeight = area.getHeight() / 2;
+            var minX = area.getMinX();
+            var minY = area.getMinY();
+            var midX = minX + halfWidth;
+            var midY = minY + halfHeight;
+            zones.table[0] = new Zone(new Rectangle2D(minX, minY, halfWidth, halfHeight), area, false);
+            zones.table[1] = new Zone(area, area, true);
+            zones.table[2] = new Zone(new Rectangle2D(midX, minY, halfWidth, halfHeight), area, false);
+            zones.table[3] = new Zone(new Rectangle2D(minX, minY, halfWidth, area.getHeight()), area, false);
+            zones.table[5] = new Zone(new Rectangle2D(midX, minY, halfWidth, area.getHeight()), area, false);
+            zones.table[6] = new Zone(new Rectangle2D(minX, midY, halfWidth, halfHeight), area, false);
+            zones.table[8] = new Zone(new Rectangle2D(midX, midY, halfWidth, halfHeight), area, false);
+            var columns = getColumns(screen);
+            if (columns > 1) {
+                zones.columns = new Zone[columns];
+                var columnWidth = area.getWidth() / columns;
+                for (var i = 0; i < columns; i++) {
+                    zones.columns[i] = new Zone(new Rectangle2D(minX + i * columnWidth, minY, columnWidth,
+                            area.getHeight()), area, false);
+                }
+            }
+            zonesByScreen.put(screen, zones);
+        }
+    }
+
+    static {
+        Screen.getScreens().addListener((ListChangeListener<Screen>) (c) -> zonesByScreen = null);
+    }
+
+    private SnapZones() {
+        //empty
+    }
+}
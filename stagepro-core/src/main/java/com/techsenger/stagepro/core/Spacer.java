@@ -21,6 +21,8 @@ import javafx.scene.layout.Priority;
 import javafx.scene.layout.Region;
 
 /**
+ * A region that takes all the extra space (in an {@link HBox} or in the center slot of a {@link TitleBar}) or has a
+ * fixed width.
  *
  * @author Pavel Castornii
  */
@@ -32,6 +34,7 @@ public class Spacer extends Region {
 
     public Spacer(double width) {
         setMinWidth(width);
+        setPrefWidth(width);
         setMaxWidth(width);
     }
 }
@@ -0,0 +1,93 @@
+/*
+ * Copyright 2024 Pavel Castornii.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.techsenger.stagepro.core;
+
+import javafx.scene.Node;
+import javafx.scene.control.Button;
+import javafx.scene.control.Label;
+import javafx.scene.image.ImageView;
+import javafx.scene.layout.Priority;
+import javafx.scene.layout.Region;
+import javafx.scene.layout.VBox;
+
+/**
+ * The code of the chrome (stage box, content area, title bar nodes, theme) that is shared by the stage controllers,
+ * internal windows and popups.
+ *
+ * @author Pavel Castornii
+ */
+final class StageChrome {
+
+    static final String STYLESHEET = StageChrome.class.getResource("stage.css").toExternalForm();
+
+    /**
+     * Adds the style classes of the stage box and of its content area that takes all the height of the box.
+     */
+    static void buildStageBox(Region stageBox, VBox contentArea, String... styleClasses) {
+        stageBox.getStyleClass().add("stage-box");
+        stageBox.getStyleClass().addAll(styleClasses);
+        VBox.setVgrow(contentArea, Priority.ALWAYS);
+        contentArea.getStyleClass().add("content-area");
+    }
+
+    static void buildTitleNodes(ImageView iconView, Label titleLabel, Button closeButton) {
+        iconView.getStyleClass().add("icon-view");
+        titleLabel.getStyleClass().add("title-label");
+        closeButton.getStyleClass().add("close-button");
+    }
+
+    /**
+     * Replaces the content of the content area, the content takes all the height of the area.
+     */
+    static void setContent(VBox contentArea, Node content) {
+        contentArea.getChildren().clear();
+        if (content != null) {
+            VBox.setVgrow(content, Priority.ALWAYS);
+            contentArea.getChildren().add(content);
+        }
+    }
+
+    static void setDarkTheme(Node stageBox, boolean dark) {
+        if (dark) {
+            if (!stageBox.getStyleClass().contains("dark")) {
+                stageBox.getStyleClass().add("dark");
+            }
+        } else {
+            stageBox.getStyleClass().remove("dark");
+        }
+    }
+
+    /**
+     * Shows, hides, enables or disables the maximize button depending on its policy. The button is not removed from
+     * the title bar, it is just excluded from the layout.
+     */
+    static void checkMaximizeButton(MaximizeButton button, boolean resizable) {
+        if (button.getPolicy() == MaximizeButton.ResizableStatePolicy.INTERACTIVITY) {
+            button.setVisible(true);
+            button.setManaged(true);
+            button.setDisable(!resizable);
+        } else {
+            button.setDisable(false);
+            button.setVisible(resizable);
+            button.setManaged(resizable);
+        }
+    }
+
+    private StageChrome() {
+        //empty
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright 2024 Pavel Castornii.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.techsenger.stagepro.core;
+
+import javafx.event.Event;
+import javafx.event.EventType;
+import javafx.scene.input.InputEvent;
+import javafx.scene.input.MouseEvent;
+
+/**
+ *
+ * @author Pavel Castornii
+ */
+public class StageMoveEvent extends Event {
+
+    /**
+     * Common supertype for all stage move event types.
+     */
+    public static final EventType<StageMoveEvent> ANY = new EventType<>(Event.ANY, "STAGE_MOVE");
+
+    /**
+     * This event occurs when user starts moving a stage by dragging its title bar.
+     */
+    public static final EventType<StageMoveEvent> STAGE_MOVING_STARTED =
+            new EventType<>(StageMoveEvent.ANY, "STAGE_MOVING_STARTED");
+
+    /**
+     * This event occurs when user finishes moving a stage.
+     */
+    public static final EventType<StageMoveEvent> STAGE_MOVING_FINISHED =
+            new EventType<>(StageMoveEvent.ANY, "STAGE_MOVING_FINISHED");
+
+    private final InputEvent inputEvent;
+
+    public StageMoveEvent(EventType<? extends StageMoveEvent> eventType, MouseEvent mouseEvent) {
+        this(eventType, (InputEvent) mouseEvent);
+    }
+
+    /**
+     * Creates the event caused by the input event: a mouse event, a touch event or a zoom event.
+     */
+    public StageMoveEvent(EventType<? extends StageMoveEvent> eventType, InputEvent inputEvent) {
+        super(eventType);
+        this.inputEvent = inputEvent;
+    }
+
+    /**
+     * Returns the mouse event or null if the event is not caused by a mouse event.
+     */
+    public MouseEvent getMouseEvent() {
+        return inputEvent instanceof MouseEvent ? (MouseEvent) inputEvent : null;
+    }
+
+    /**
+     * Returns the input event or null if the finishing event is fired because the window was hidden before the
+     * release.
+     */
+    public InputEvent getInputEvent() {
+        return inputEvent;
+    }
+}
@@ -0,0 +1,317 @@
+/*
+ * Copyright 2024 Pavel Castornii.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.techsenger.stagepro.core;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import javafx.beans.value.ChangeListener;
+import javafx.geometry.Rectangle2D;
+import javafx.scene.paint.Color;
+import javafx.stage.Screen;
+import javafx.stage.Stage;
+
+/**
+ * The registry of all showing StagePro stages. Every controller is added to the registry when its stage is shown
+ * and removed when its stage is hidden. The registry provides lookup by id and by stage, keeps the z-order of the
+ * stages (by focus) and offers bulk operations. The work of a bulk operation is deferred to the next pulse and done
+ * there for all the stages, every stage still makes its own native calls. The snap index is not updated during the
+ * operation, the changed stages are refreshed on the next snapping query.
+ *
+ * <p>The registry must be used only on the FX thread.
+ *
+ * @author Pavel Castornii
+ */
+public final class StageProRegistry {
+
+    private static final StageProRegistry instance = new StageProRegistry();
+
+    /**
+     * The step of the cascade.
+     */
+    private static final double CASCADE_OFFSET = 30;
+
+    public static StageProRegistry getDefault() {
+        return instance;
+    }
+
+    private final Map<String, BaseStageController> controllersById = new HashMap<>();
+
+    private final Map<Stage, BaseStageController> controllersByStage = new HashMap<>();
+
+    /**
+     * Controllers from the bottom one to the topmost one.
+     */
+    private final LinkedHashSet<BaseStageController> zOrder = new LinkedHashSet<>();
+
+    private final Collection<BaseStageController> controllers = Collections.unmodifiableCollection(zOrder);
+
+    private final SnapIndex<BaseStageController> snapIndex = new SnapIndex<>(BaseStageController::getVisibleBounds);
+
+    /**
+     * The theme tokens of all stages.
+     */
+    private final Map<ThemeToken, Color> themePalette = new EnumMap<>(ThemeToken.class);
+
+    private final Map<ThemeToken, Color> unmodifiableThemePalette = Collections.unmodifiableMap(themePalette);
+
+    private StageProRegistry() {
+        //empty
+    }
+
+    /**
+     * Returns the controller with the given id or null if there is no showing stage with this id.
+     */
+    public BaseStageController getById(String id) {
+        return controllersById.get(id);
+    }
+
+    /**
+     * Returns the controller of the given stage or null if the stage is not a showing StagePro stage.
+     */
+    public BaseStageController getByStage(Stage stage) {
+        return controllersByStage.get(stage);
+    }
+
+    /**
+     * Returns an unmodifiable view of all the controllers in z-order, from the bottom one to the topmost one.
+     */
+    public Collection<BaseStageController> getControllers() {
+        return controllers;
+    }
+
+    /**
+     * Returns the controller of the last focused stage or null if there are no stages.
+     */
+    public BaseStageController getTopmost() {
+        BaseStageController result = null;
+        for (var c : zOrder) {
+            result = c;
+        }
+        return result;
+    }
+
+    public int size() {
+        return zOrder.size();
+    }
+
+    /**
+     * Minimizes all stages in the next pulse.
+     */
+    public void minimizeAll() {
+        var list = new ArrayList<>(zOrder);
+        PulseBatch.run(() -> {
+            for (var c : list) {
+                c.getStage().setIconified(true);
+            }
+        });
+    }
+
+    /**
+     * Restores all minimized stages in the next pulse keeping their z-order.
+     */
+    public void restoreAll() {
+        var list = new ArrayList<>(zOrder);
+        PulseBatch.run(() -> {
+            for (var c : list) {
+                if (c.getStage().isIconified()) {
+                    c.getStage().setIconified(false);
+                }
+            }
+        });
+    }
+
+    /**
+     * Closes the given stages (a group) in the next pulse.
+     */
+    public void close(Collection<? extends BaseStageController> group) {
+        var list = new ArrayList<BaseStageController>(group);
+        PulseBatch.run(() -> {
+            for (var c : list) {
+                c.getStage().close();
+            }
+        });
+    }
+
+    /**
+     * Closes all stages in the next pulse.
+     */
+    public void closeAll() {
+        close(zOrder);
+    }
+
+    /**
+     * Cascades the given stages on the screen in the next pulse. Stages are restored if they are minimized or
+     * maximized, their sizes are not changed. The order of the collection is the order of the cascade, the last stage
+     * is on top.
+     */
+    public void cascade(Collection<? extends BaseStageController> group, Screen screen) {
+        var list = new ArrayList<BaseStageController>(group);
+        var bounds = screen.getVisualBounds();
+        PulseBatch.run(() -> {
+            var x = bounds.getMinX();
+            var y = bounds.getMinY();
+            for (var c : list) {
+                c.getStage().setIconified(false);
+                c.resetMaximized();
+                var visible = c.getVisibleBounds();
+                if (x + visible.getWidth() > bounds.getMaxX() || y + visible.getHeight() > bounds.getMaxY()) {
+                    x = bounds.getMinX();
+                    y = bounds.getMinY();
+                }
+                c.setVisibleBounds(new Rectangle2D(x, y, visible.getWidth(), visible.getHeight()));
+                c.getStage().toFront();
+                x += CASCADE_OFFSET;
+                y += CASCADE_OFFSET;
+            }
+        });
+    }
+
+    /**
+     * Cascades all stages on the primary screen.
+     */
+    public void cascadeAll() {
+        cascade(zOrder, Screen.getPrimary());
+    }
+
+    /**
+     * Returns the color of the theme token of all stages or null if the token is not set.
+     */
+    public Color getThemeToken(ThemeToken token) {
+        return themePalette.get(token);
+    }
+
+    /**
+     * Sets the color of the theme token for all stages, null removes the token. Every showing stage gets one inline
+     * style update, the stages that are not showing get the token when they are shown. The tokens that are set for
+     * a stage by its controller override the tokens of the registry.
+     */
+    public void setThemeToken(ThemeToken token, Color color) {
+        if (color == null) {
+            if (themePalette.remove(token) == null) {
+                return;
+            }
+        } else {
+            themePalette.put(token, color);
+        }
+        updateThemeStyles();
+    }
+
+    /**
+     * Returns an unmodifiable view of the theme tokens of all stages.
+     */
+    public Map<ThemeToken, Color> getThemePalette() {
+        return unmodifiableThemePalette;
+    }
+
+    /**
+     * Replaces all the theme tokens of all stages with the given ones, every showing stage gets one style update.
+     */
+    public void setThemePalette(Map<ThemeToken, Color> palette) {
+        if (palette.isEmpty() && themePalette.isEmpty()) {
+            return;
+        }
+        themePalette.clear();
+        themePalette.putAll(palette);
+        updateThemeStyles();
+    }
+
+    void register(BaseStageController controller) {
+        var stage = controller.getStage();
+        stage.showingProperty().addListener((ov, oldV, newV) -> {
+            if (newV) {
+                add(controller);
+            } else {
+                remove(controller);
+            }
+        });
+        stage.focusedProperty().addListener((ov, oldV, newV) -> {
+            if (newV && zOrder.remove(controller)) {
+                zOrder.add(controller);
+            }
+        });
+        //change listener, not invalidation one, because nobody may validate these properties
+        ChangeListener<Number> boundsListener = (ov, oldV, newV) -> snapIndex.markDirty(controller);
+        stage.xProperty().addListener(boundsListener);
+        stage.yProperty().addListener(boundsListener);
+        stage.widthProperty().addListener(boundsListener);
+        stage.heightProperty().addListener(boundsListener);
+        if (stage.isShowing()) {
+            add(controller);
+        }
+    }
+
+    /**
+     * Returns the inline style with the tokens of the registry and the given tokens of a stage that override them.
+     */
+    String createThemeStyle(Map<ThemeToken, Color> overrides) {
+        var builder = new StringBuilder();
+        for (var token : ThemeToken.values()) {
+            Color color = null;
+            if (overrides != null) {
+                color = overrides.get(token);
+            }
+            if (color == null) {
+                color = themePalette.get(token);
+            }
+            if (color != null) {
+                builder.append(token.getCssName()).append(": ").append(ColorUtils.toHexWithAlpha(color)).append(";");
+            }
+        }
+        return builder.toString();
+    }
+
+    SnapIndex<BaseStageController> getSnapIndex() {
+        return snapIndex;
+    }
+
+    void updateId(BaseStageController controller, String oldId) {
+        if (controllersById.get(oldId) == controller) {
+            controllersById.remove(oldId);
+            controllersById.put(controller.getId(), controller);
+        }
+    }
+
+    private void add(BaseStageController controller) {
+        //the id of a hidden stage isn't checked, so the stage that is shown first keeps the id
+        controllersById.putIfAbsent(controller.getId(), controller);
+        controllersByStage.put(controller.getStage(), controller);
+        zOrder.add(controller);
+        snapIndex.add(controller);
+        //the palette could be changed when the stage was not showing
+        controller.updateThemeStyle();
+    }
+
+    private void updateThemeStyles() {
+        for (var c : zOrder) {
+            c.updateThemeStyle();
+        }
+    }
+
+    private void remove(BaseStageController controller) {
+        if (controllersById.get(controller.getId()) == controller) {
+            controllersById.remove(controller.getId());
+        }
+        controllersByStage.remove(controller.getStage());
+        zOrder.remove(controller);
+        snapIndex.remove(controller);
+    }
+}
@@ -18,6 +18,7 @@ package com.techsenger.stagepro.core;
 
 import javafx.event.Event;
 import javafx.event.EventType;
+import javafx.scene.input.InputEvent;
 import javafx.scene.input.MouseEvent;
 
 /**
@@ -43,14 +44,32 @@ public class StageResizeEvent extends Event {
     public static final EventType<StageResizeEvent> STAGE_RESIZING_FINISHED =
             new EventType<>(StageResizeEvent.ANY, "STAGE_RESIZING_FINISHED");
 
-    private final MouseEvent mouseEvent;
+    private final InputEvent inputEvent;
 
     public StageResizeEvent(EventType<? extends StageResizeEvent> eventType, MouseEvent mouseEvent) {
+        this(eventType, (InputEvent) mouseEvent);
+    }
+
+    /**
+     * Creates the event caused by the input event: a mouse event, a touch event or a zoom event.
+     */
+    public StageResizeEvent(EventType<? extends StageResizeEvent> eventType, InputEvent inputEvent) {
         super(eventType);
-        this.mouseEvent = mouseEvent;
+        this.inputEvent = inputEvent;
     }
 
+    /**
+     * Returns the mouse event or null if the event is not caused by a mouse event.
+     */
     public MouseEvent getMouseEvent() {
-        return mouseEvent;
+        return inputEvent instanceof MouseEvent ? (MouseEvent) inputEvent : null;
+    }
+
+    /**
+     * Returns the input event or null if the finishing event is fired because the window was hidden before the
+     * release.
+     */
+    public InputEvent getInputEvent() {
+        return inputEvent;
     }
 }
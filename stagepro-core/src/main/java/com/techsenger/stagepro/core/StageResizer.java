@@ -17,8 +17,11 @@
 package com.techsenger.stagepro.core;
 
 import javafx.beans.property.DoubleProperty;
+import javafx.event.Event;
 import javafx.event.EventHandler;
+import javafx.event.EventType;
 import javafx.scene.Cursor;
+import javafx.scene.input.InputEvent;
 import javafx.scene.input.MouseEvent;
 import javafx.stage.Stage;
 
@@ -30,17 +33,9 @@ class StageResizer extends AbstractResizer {
 
     private Stage stage;
 
-    private final EventHandler<MouseEvent> mousedPressedHandler = (event) -> mousePressed(event);
-
-    private final EventHandler<MouseEvent> mousedMovedHandler = (event) -> mouseMoved(event);
-
-    private final EventHandler<MouseEvent> mousedDraggedHandler = (event) -> mouseDragged(event);
-
-    private final EventHandler<MouseEvent> mousedReleasedHandler = (event) -> mouseReleased(event);
-
     StageResizer(DoubleProperty minWidth, DoubleProperty minHeight, DoubleProperty maxWidth,
-            DoubleProperty maxHeight, EventHandler<? super MouseEvent> startedHandler,
-            EventHandler<? super MouseEvent> finishedHandler) {
+            DoubleProperty maxHeight, EventHandler<? super InputEvent> startedHandler,
+            EventHandler<? super InputEvent> finishedHandler) {
         super(minWidth, minHeight, maxWidth, maxHeight, startedHandler, finishedHandler);
     }
 
@@ -51,20 +46,14 @@ class StageResizer extends AbstractResizer {
      */
     public void initialize(Stage stage) {
         this.stage = stage;
-        this.stage.addEventFilter(MouseEvent.MOUSE_PRESSED, mousedPressedHandler);
-        this.stage.addEventFilter(MouseEvent.MOUSE_MOVED, mousedMovedHandler);
-        this.stage.addEventFilter(MouseEvent.MOUSE_DRAGGED, mousedDraggedHandler);
-        this.stage.addEventFilter(MouseEvent.MOUSE_RELEASED, mousedReleasedHandler);
+        setFiltersEnabled(true);
     }
 
     /**
      * Deinitializes resizer by removing all its handlers from stage.
      */
     public void deinitialize() {
-        this.stage.removeEventFilter(MouseEvent.MOUSE_PRESSED, mousedPressedHandler);
-        this.stage.removeEventFilter(MouseEvent.MOUSE_MOVED, mousedMovedHandler);
-        this.stage.removeEventFilter(MouseEvent.MOUSE_DRAGGED, mousedDraggedHandler);
-        this.stage.removeEventFilter(MouseEvent.MOUSE_RELEASED, mousedReleasedHandler);
+        setFiltersEnabled(false);
         this.stage = null;
     }
 
@@ -123,11 +112,36 @@ class StageResizer extends AbstractResizer {
         return event.getScreenY();
     }
 
+    @Override
+    protected double getOutputScaleX() {
+        return this.stage.getOutputScaleX();
+    }
+
+    @Override
+    protected double getOutputScaleY() {
+        return this.stage.getOutputScaleY();
+    }
+
     @Override
     protected double getMargin() {
         return 4;
     }
 
+    @Override
+    protected <T extends Event> void addEventFilter(EventType<T> type, EventHandler<? super T> filter) {
+        this.stage.addEventFilter(type, filter);
+    }
+
+    @Override
+    protected <T extends Event> void removeEventFilter(EventType<T> type, EventHandler<? super T> filter) {
+        this.stage.removeEventFilter(type, filter);
+    }
+
+    @Override
+    protected boolean isTouchSupported() {
+        return true;
+    }
+
     protected Stage getStage() {
         return stage;
     }
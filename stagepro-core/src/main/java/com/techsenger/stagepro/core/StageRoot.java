@@ -0,0 +1,96 @@
+/*
+ * Copyright 2024 Pavel Castornii.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.techsenger.stagepro.core;
+
+import javafx.geometry.Insets;
+import javafx.scene.layout.Region;
+
+/**
+ * The root of the scene that is used when the stage box needs something around it, for example, a shadow. The
+ * stage box is laid out within the insets of the root.
+ *
+ * @author Pavel Castornii
+ */
+class StageRoot extends Region {
+
+    private Region stageBox;
+
+    private ResizeRegions resizeRegions;
+
+    StageRoot() {
+        getStyleClass().add("stage-root");
+    }
+
+    Region getStageBox() {
+        return stageBox;
+    }
+
+    /**
+     * Sets the stage box. If the stage box is the root of the scene, this root must be set as the root of the scene
+     * first.
+     */
+    void setStageBox(Region stageBox) {
+        if (this.stageBox != null) {
+            getChildren().remove(this.stageBox);
+        }
+        this.stageBox = stageBox;
+        getChildren().add(0, stageBox);
+    }
+
+    ResizeRegions getResizeRegions() {
+        return resizeRegions;
+    }
+
+    /**
+     * Sets the resize regions that are placed over the edges of the stage box, null removes them.
+     */
+    void setResizeRegions(ResizeRegions resizeRegions) {
+        if (this.resizeRegions != null) {
+            getChildren().removeAll(this.resizeRegions.getRegions());
+            this.resizeRegions.dispose();
+        }
+        this.resizeRegions = resizeRegions;
+        if (resizeRegions != null) {
+            getChildren().addAll(resizeRegions.getRegions());
+        }
+    }
+
+    @Override
+    protected double computePrefWidth(double height) {
+        return snappedLeftInset() + snappedRightInset() + (stageBox == null ? 0 : stageBox.prefWidth(-1));
+    }
+
+    @Override
+    protected double computePrefHeight(double width) {
+        return snappedTopInset() + snappedBottomInset() + (stageBox == null ? 0 : stageBox.prefHeight(-1));
+    }
+
+    @Override
+    protected void layoutChildren() {
+        if (resizeRegions != null) {
+            resizeRegions.layout(getWidth(), getHeight(), new Insets(snappedTopInset(), snappedRightInset(),
+                    snappedBottomInset(), snappedLeftInset()));
+        }
+        if (stageBox == null) {
+            return;
+        }
+        var left = snappedLeftInset();
+        var top = snappedTopInset();
+        stageBox.resizeRelocate(left, top, getWidth() - left - snappedRightInset(),
+                getHeight() - top - snappedBottomInset());
+    }
+}
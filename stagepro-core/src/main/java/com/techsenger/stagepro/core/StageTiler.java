@@ -0,0 +1,386 @@
+/*
+ * Copyright 2024 Pavel Castornii.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.techsenger.stagepro.core;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import javafx.beans.value.ChangeListener;
+import javafx.collections.ListChangeListener;
+import javafx.collections.WeakListChangeListener;
+import javafx.event.EventHandler;
+import javafx.geometry.Rectangle2D;
+import javafx.stage.Screen;
+
+/**
+ * Tiles StagePro stages on the screens using a {@link TileLayout}. Stages are distributed among the screens
+ * proportionally to the areas of the screens, every screen is laid out separately. When a stage is added, removed
+ * (including when it is hidden) or resized by the user, only the screen of this stage is laid out again and only the
+ * stages whose bounds have changed are updated. All bounds are applied in the next pulse, every stage still sets its
+ * own bounds.
+ *
+ * <p>This class must be used only on the FX thread.
+ *
+ * @author Pavel Castornii
+ */
+public class StageTiler {
+
+    /**
+     * A tiled stage.
+     */
+    private final class Member implements TileLayout.Tile {
+
+        private final BaseStageController controller;
+
+        private double widthWeight = 1;
+
+        private double heightWeight = 1;
+
+        private int screenIndex;
+
+        private Rectangle2D bounds;
+
+        private final ChangeListener<Boolean> showingListener = (ov, oldV, newV) -> {
+            if (!newV) {
+                remove(getController());
+            }
+        };
+
+        private final EventHandler<StageResizeEvent> resizeHandler = (e) -> onResized(this);
+
+        Member(BaseStageController controller) {
+            this.controller = controller;
+        }
+
+        BaseStageController getController() {
+            return controller;
+        }
+
+        @Override
+        public double getMinWidth() {
+            var insets = controller.getShadowInsets();
+            return Math.max(0, controller.getStage().getMinWidth() - insets.getLeft() - insets.getRight());
+        }
+
+        @Override
+        public double getMinHeight() {
+            var insets = controller.getShadowInsets();
+            return Math.max(0, controller.getStage().getMinHeight() - insets.getTop() - insets.getBottom());
+        }
+
+        @Override
+        public double getWidthWeight() {
+            return widthWeight;
+        }
+
+        @Override
+        public double getHeightWeight() {
+            return heightWeight;
+        }
+    }
+
+    private final List<Member> members = new ArrayList<>();
+
+    private final Map<BaseStageController, Member> membersByController = new HashMap<>();
+
+    /**
+     * The screens of the OS can be added or removed at any time, the listener is weak, so the tiler is not kept by
+     * the static list.
+     */
+    private final ListChangeListener<Screen> screensListener = (c) -> updateScreens();
+
+    private TileLayout layout;
+
+    private double gap = 0;
+
+    private List<Screen> screens;
+
+    public StageTiler(TileLayout layout) {
+        this.layout = layout;
+        Screen.getScreens().addListener(new WeakListChangeListener<>(this.screensListener));
+    }
+
+    public TileLayout getLayout() {
+        return layout;
+    }
+
+    /**
+     * Sets the layout and lays out all stages again.
+     */
+    public void setLayout(TileLayout layout) {
+        this.layout = layout;
+        for (int i = 0; i < resolveScreens().size(); i++) {
+            layoutScreen(i);
+        }
+    }
+
+    public double getGap() {
+        return gap;
+    }
+
+    public void setGap(double gap) {
+        this.gap = gap;
+    }
+
+    /**
+     * Returns the screens that are used for tiling. If screens are not set, all screens are used.
+     */
+    public List<Screen> getScreens() {
+        return resolveScreens();
+    }
+
+    /**
+     * Sets the screens that are used for tiling and lays out all stages again. The stages of the screens that are
+     * not in the list any more are moved to the least loaded screens.
+     */
+    public void setScreens(List<Screen> screens) {
+        this.screens = screens;
+        updateScreens();
+    }
+
+    /**
+     * Returns the tiled stages in tiling order.
+     */
+    public List<BaseStageController> getControllers() {
+        var result = new ArrayList<BaseStageController>(members.size());
+        for (var m : members) {
+            result.add(m.getController());
+        }
+        return result;
+    }
+
+    /**
+     * Sets the weights of the width and of the height of the stage, the stage with the weight 2 is twice as big as the
+     * stage with the weight 1. Which weight is used depends on the layout.
+     */
+    public void setWeight(BaseStageController controller, double weight) {
+        setWeights(controller, weight, weight);
+    }
+
+    /**
+     * Sets the weight of the width and the weight of the height of the stage.
+     */
+    public void setWeights(BaseStageController controller, double widthWeight, double heightWeight) {
+        var member = membersByController.get(controller);
+        if (member != null) {
+            member.widthWeight = widthWeight;
+            member.heightWeight = heightWeight;
+            layoutScreen(member.screenIndex);
+        }
+    }
+
+    /**
+     * Tiles the given stages on all screens. The stages that were tiled before are released.
+     */
+    public void tile(Collection<? extends BaseStageController> controllers) {
+        clear();
+        var screenList = resolveScreens();
+        var counts = resolveScreenCounts(screenList, controllers.size());
+        var screenIndex = 0;
+        var inScreen = 0;
+        for (var c : controllers) {
+            while (screenIndex < counts.length - 1 && inScreen >= counts[screenIndex]) {
+                screenIndex++;
+                inScreen = 0;
+            }
+            var member = createMember(c);
+            member.screenIndex = screenIndex;
+            inScreen++;
+        }
+        for (int i = 0; i < screenList.size(); i++) {
+            layoutScreen(i);
+        }
+    }
+
+    /**
+     * Adds the stage to the least loaded screen and lays out this screen.
+     */
+    public void add(BaseStageController controller) {
+        if (membersByController.containsKey(controller)) {
+            return;
+        }
+        var bestIndex = resolveLeastLoadedScreen();
+        var member = createMember(controller);
+        member.screenIndex = bestIndex;
+        layoutScreen(bestIndex);
+    }
+
+    /**
+     * Removes the stage and lays out its screen. The stage itself is not changed.
+     */
+    public void remove(BaseStageController controller) {
+        var member = membersByController.remove(controller);
+        if (member == null) {
+            return;
+        }
+        members.remove(member);
+        release(member);
+        layoutScreen(member.screenIndex);
+    }
+
+    /**
+     * Removes all stages without changing them.
+     */
+    public void clear() {
+        for (var m : members) {
+            release(m);
+        }
+        members.clear();
+        membersByController.clear();
+    }
+
+    private Member createMember(BaseStageController controller) {
+        var member = new Member(controller);
+        members.add(member);
+        membersByController.put(controller, member);
+        controller.getStage().showingProperty().addListener(member.showingListener);
+        controller.getStage().addEventHandler(StageResizeEvent.STAGE_RESIZING_FINISHED, member.resizeHandler);
+        return member;
+    }
+
+    private void release(Member member) {
+        member.getController().getStage().showingProperty().removeListener(member.showingListener);
+        member.getController().getStage().removeEventHandler(StageResizeEvent.STAGE_RESIZING_FINISHED,
+                member.resizeHandler);
+    }
+
+    /**
+     * When the user resizes a tiled stage its weights are changed proportionally to the changes of its width and
+     * height. The stage is always laid out again, even if its computed bounds are the same as before resizing.
+     */
+    private void onResized(Member member) {
+        var current = member.getController().getVisibleBounds();
+        var old = member.bounds;
+        if (old != null && old.getWidth() > 0 && old.getHeight() > 0) {
+            member.widthWeight = member.widthWeight * current.getWidth() / old.getWidth();
+            member.heightWeight = member.heightWeight * current.getHeight() / old.getHeight();
+        }
+        member.bounds = null;
+        layoutScreen(member.screenIndex);
+    }
+
+    /**
+     * Moves the members of the screens that don't exist any more to the least loaded screens and lays out all
+     * screens, because the indexes and the bounds of the remaining screens could be changed too.
+     */
+    private void updateScreens() {
+        var screenCount = resolveScreens().size();
+        for (var m : members) {
+            if (m.screenIndex >= screenCount) {
+                m.screenIndex = resolveLeastLoadedScreen();
+            }
+        }
+        for (int i = 0; i < screenCount; i++) {
+            layoutScreen(i);
+        }
+    }
+
+    private int resolveLeastLoadedScreen() {
+        var screenList = resolveScreens();
+        var bestIndex = 0;
+        var bestLoad = Double.MAX_VALUE;
+        for (int i = 0; i < screenList.size(); i++) {
+            var bounds = screenList.get(i).getVisualBounds();
+            var load = (countMembers(i) + 1) / (bounds.getWidth() * bounds.getHeight());
+            if (load < bestLoad) {
+                bestLoad = load;
+                bestIndex = i;
+            }
+        }
+        return bestIndex;
+    }
+
+    private void layoutScreen(int screenIndex) {
+        var screenList = resolveScreens();
+        if (screenIndex >= screenList.size()) {
+            return;
+        }
+        var screenMembers = new ArrayList<Member>();
+        for (var m : members) {
+            if (m.screenIndex == screenIndex) {
+                screenMembers.add(m);
+            }
+        }
+        if (screenMembers.isEmpty()) {
+            return;
+        }
+        var area = screenList.get(screenIndex).getVisualBounds();
+        var bounds = layout.layout(area, screenMembers, gap);
+        var changed = new ArrayList<Member>();
+        for (int i = 0; i < screenMembers.size(); i++) {
+            var member = screenMembers.get(i);
+            var b = bounds.get(i);
+            if (!b.equals(member.bounds)) {
+                member.bounds = b;
+                changed.add(member);
+            }
+        }
+        if (changed.isEmpty()) {
+            return;
+        }
+        PulseBatch.run(() -> {
+            for (var member : changed) {
+                member.getController().getStage().setIconified(false);
+                //the shadow is shown again when the stage is restored, so the bounds are applied after it
+                member.getController().resetMaximized();
+                member.getController().setVisibleBounds(member.bounds);
+            }
+        });
+    }
+
+    private int countMembers(int screenIndex) {
+        var count = 0;
+        for (var m : members) {
+            if (m.screenIndex == screenIndex) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Returns the number of stages for every screen, proportionally to the areas of the screens.
+     */
+    private int[] resolveScreenCounts(List<Screen> screenList, int count) {
+        var counts = new int[screenList.size()];
+        var totalArea = 0.0;
+        for (var s : screenList) {
+            totalArea += s.getVisualBounds().getWidth() * s.getVisualBounds().getHeight();
+        }
+        var assigned = 0;
+        for (int i = 0; i < counts.length; i++) {
+            var b = screenList.get(i).getVisualBounds();
+            counts[i] = (int) Math.floor(count * b.getWidth() * b.getHeight() / totalArea);
+            assigned += counts[i];
+        }
+        //the rest goes to the screens from the first one
+        for (int i = 0; assigned < count; i = (i + 1) % counts.length) {
+            counts[i]++;
+            assigned++;
+        }
+        return counts;
+    }
+
+    private List<Screen> resolveScreens() {
+        if (screens != null && !screens.isEmpty()) {
+            return screens;
+        }
+        return Screen.getScreens();
+    }
+}
@@ -20,8 +20,6 @@ import javafx.beans.binding.Bindings;
 import javafx.scene.control.Button;
 import javafx.scene.input.MouseEvent;
 import javafx.stage.Stage;
-import javafx.collections.ListChangeListener;
-import javafx.scene.Node;
 
 /**
  *
@@ -33,8 +31,6 @@ public class StandardStageController extends SimpleStageController {
 
     private final MaximizeButton maximizeButton = new MaximizeButton(MaximizeButton.ResizableStatePolicy.VISIBILITY);
 
-    private boolean buttonBoxListenerEnabled = true;
-
     public StandardStageController(Stage stage, double width, double height) {
         this(stage, width, height, true);
     }
@@ -46,8 +42,9 @@ public class StandardStageController extends SimpleStageController {
         addListeners();
         addHandlers();
         if (initTitleBar) {
-            getButtonBox().getChildren().addAll(minimizeButton, maximizeButton, getCloseButton());
-            getTitleBar().getChildren().addAll(getIconView(), getTitleLabel(), new Spacer(), getButtonBox());
+            getTitleBar().getLeading().add(getIconView());
+            getTitleBar().getCenter().add(getTitleLabel());
+            getTitleBar().getTrailing().addAll(minimizeButton, maximizeButton, getCloseButton());
         }
     }
 
@@ -61,53 +58,31 @@ public class StandardStageController extends SimpleStageController {
 
     private void build() {
         this.minimizeButton.getStyleClass().add("minimize-button");
-        getButtonBox().getChildren().addListener((ListChangeListener<? super Node>) (e) -> {
-            if (this.buttonBoxListenerEnabled) {
-                this.maximizeButton.setIndex(getButtonBox().getChildren().indexOf(this.maximizeButton));
-                checkMaximizeButton();
-            }
-        });
+        checkMaximizeButton();
     }
 
     private void bind() {
-        getResizer().disabledProperty().bind(getStage().maximizedProperty()
+        getResizer().disabledProperty().bind(maximizedProperty()
                 .or(Bindings.not(getStage().resizableProperty())));
     }
 
     private void addListeners() {
         getStage().resizableProperty().addListener((ov, oldV, newV) -> checkMaximizeButton());
+        this.maximizeButton.setPolicyHandler(() -> checkMaximizeButton());
     }
 
     private void addHandlers() {
         minimizeButton.setOnAction(e -> getStage().setIconified(true));
-        maximizeButton.setOnAction(e -> getStage().setMaximized(!getStage().isMaximized()));
+        maximizeButton.setOnAction(e -> toggleMaximized());
         getTitleBar().addEventFilter(MouseEvent.MOUSE_CLICKED, e -> {
             if (e.getClickCount() == 2) {
-                getStage().setMaximized(!getStage().isMaximized());
+                toggleMaximized();
                 e.consume();
             }
         });
     }
 
     private void checkMaximizeButton() {
-        if (this.maximizeButton.getIndex() == -1) {
-            return;
-        }
-        if (maximizeButton.getPolicy() == MaximizeButton.ResizableStatePolicy.INTERACTIVITY) {
-            maximizeButton.setDisable(!getStage().isResizable());
-        } else {
-            this.buttonBoxListenerEnabled = false;
-            if (getStage().isResizable()) {
-                if (this.getMaximizeButton().getParent() != getButtonBox()) {
-                    getButtonBox().getChildren().add(maximizeButton.getIndex(), maximizeButton);
-                }
-            } else {
-                if (this.getMaximizeButton().getParent() == getButtonBox()) {
-                    getButtonBox().getChildren().remove(maximizeButton.getIndex());
-                }
-            }
-            this.buttonBoxListenerEnabled = true;
-        }
+        StageChrome.checkMaximizeButton(this.maximizeButton, getStage().isResizable());
     }
 }
-
@@ -0,0 +1,66 @@
+/*
+ * Copyright 2024 Pavel Castornii.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.techsenger.stagepro.core;
+
+import javafx.animation.Animation;
+
+/**
+ * Work of the stage content (animations, canvas redraw loops, media, web view repaints etc.) that can be suspended
+ * while the user moves or resizes the stage, so it doesn't compete with the window manipulation on the FX thread.
+ * Suspendables are registered with {@link BaseStageController#addSuspendable(Suspendable)}.
+ *
+ * @author Pavel Castornii
+ */
+public interface Suspendable {
+
+    /**
+     * Returns a suspendable that pauses the animation if it is running and plays it again on resume.
+     */
+    static Suspendable of(Animation animation) {
+        return new Suspendable() {
+
+            private boolean paused = false;
+
+            @Override
+            public void suspend() {
+                if (animation.getStatus() == Animation.Status.RUNNING) {
+                    animation.pause();
+                    this.paused = true;
+                }
+            }
+
+            @Override
+            public void resume() {
+                if (this.paused) {
+                    this.paused = false;
+                    animation.play();
+                }
+            }
+        };
+    }
+
+    /**
+     * Suspends the work.
+     */
+    void suspend();
+
+    /**
+     * Resumes the work. The implementation should refresh once to catch up with the changes that were skipped while
+     * the work was suspended.
+     */
+    void resume();
+}
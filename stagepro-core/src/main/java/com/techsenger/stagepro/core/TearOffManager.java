@@ -0,0 +1,267 @@
+/*
+ * Copyright 2024 Pavel Castornii.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.techsenger.stagepro.core;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+import javafx.scene.Node;
+import javafx.scene.input.MouseEvent;
+import javafx.scene.layout.Pane;
+import javafx.stage.Stage;
+import javafx.stage.WindowEvent;
+
+/**
+ * Moves content nodes between StagePro stages without recreating them. A torn off node is removed from its place (the
+ * content of a controller or a child of a pane) and becomes the content of a new or pooled
+ * {@link StandardStageController}, so its state, skins and caches are kept. A docked node is returned to the same
+ * place. When the window of a torn off node is closed, the node is docked.
+ *
+ * <p>This class must be used only on the FX thread.
+ *
+ * @author Pavel Castornii
+ */
+public class TearOffManager {
+
+    /**
+     * The distance in pixels the drag handle must be dragged before the node is torn off.
+     */
+    public static final double DRAG_THRESHOLD = 10;
+
+    /**
+     * The height of the title bar that is used before the title bar of a new window is laid out.
+     */
+    private static final double DEFAULT_TITLE_BAR_HEIGHT = 30;
+
+    /**
+     * The place of a torn off node.
+     */
+    private static final class Origin {
+
+        /**
+         * The controller whose content was the node or null.
+         */
+        private final BaseStageController controller;
+
+        /**
+         * The parent of the node if the node was not the content of a controller.
+         */
+        private final Pane parent;
+
+        private final int index;
+
+        private StandardStageController window;
+
+        /**
+         * The position of the cursor relative to the window.
+         */
+        private double offsetX;
+
+        private double offsetY;
+
+        Origin(BaseStageController controller, Pane parent, int index) {
+            this.controller = controller;
+            this.parent = parent;
+            this.index = index;
+        }
+    }
+
+    private final Map<Node, Origin> origins = new IdentityHashMap<>();
+
+    /**
+     * The hidden windows that can be reused.
+     */
+    private final Deque<StandardStageController> pool = new ArrayDeque<>();
+
+    private int poolSize = 2;
+
+    private Supplier<? extends StandardStageController> windowFactory =
+            () -> new StandardStageController(new Stage(), 400, 300);
+
+    /**
+     * Tears off the node and shows it in a window so that the cursor is over the title bar of the window. The node
+     * must be the content of a StagePro controller or a child of a {@link Pane}. If the node is already torn off, its
+     * window is moved under the cursor.
+     *
+     * @return the window of the node or null if the node can't be detached from its parent.
+     */
+    public StandardStageController tearOff(Node node, double screenX, double screenY) {
+        var origin = this.origins.get(node);
+        if (origin != null) {
+            moveUnderCursor(node, screenX, screenY);
+            return origin.window;
+        }
+        var scene = node.getScene();
+        var bounds = node.getLayoutBounds();
+        BaseStageController source = null;
+        if (scene != null && scene.getWindow() instanceof Stage) {
+            source = StageProRegistry.getDefault().getByStage((Stage) scene.getWindow());
+        }
+        if (source != null && source.getContent() == node) {
+            origin = new Origin(source, null, -1);
+            source.setContent(null);
+        } else if (node.getParent() instanceof Pane) {
+            var parent = (Pane) node.getParent();
+            origin = new Origin(null, parent, parent.getChildren().indexOf(node));
+            parent.getChildren().remove(node);
+        } else {
+            return null;
+        }
+        var window = this.pool.isEmpty() ? createWindow() : this.pool.pop();
+        origin.window = window;
+        this.origins.put(node, origin);
+        if (scene != null) {
+            //the node keeps its look, if the stylesheets of the application are in the new scene too; set, not
+            //added, because a pooled window keeps the stylesheets of the previous source
+            window.getStage().getScene().getStylesheets().setAll(scene.getStylesheets());
+        }
+        if (source != null) {
+            window.setDarkTheme(source.isDarkTheme());
+        }
+        var titleBarHeight = window.getTitleBar().getHeight();
+        if (titleBarHeight <= 0) {
+            titleBarHeight = source != null && source.getTitleBar().getHeight() > 0
+                    ? source.getTitleBar().getHeight() : DEFAULT_TITLE_BAR_HEIGHT;
+        }
+        window.setContent(node);
+        var stage = window.getStage();
+        var width = Math.max(bounds.getWidth(), stage.getMinWidth());
+        stage.setWidth(width);
+        stage.setHeight(Math.max(bounds.getHeight() + titleBarHeight, stage.getMinHeight()));
+        origin.offsetX = width / 2;
+        origin.offsetY = titleBarHeight / 2;
+        moveUnderCursor(node, screenX, screenY);
+        stage.show();
+        return window;
+    }
+
+    /**
+     * Lets the user tear off the node by dragging the handle (a header, a tab, a grip etc.). When the handle is dragged
+     * further than {@link #DRAG_THRESHOLD} from the press, the node is torn off and its window follows the cursor
+     * until the release. The handle can be a part of the node, the gesture continues after the node is moved to the
+     * new window. Dragging the handle of a node that is already torn off does nothing.
+     */
+    public void installDragHandle(Node handle, Node node) {
+        var pressed = new double[2];
+        //true when the node was torn off by the current gesture, only then the window follows the cursor
+        var dragging = new boolean[1];
+        handle.addEventHandler(MouseEvent.MOUSE_PRESSED, (e) -> {
+            pressed[0] = e.getScreenX();
+            pressed[1] = e.getScreenY();
+            dragging[0] = false;
+        });
+        handle.addEventHandler(MouseEvent.MOUSE_DRAGGED, (e) -> {
+            if (dragging[0]) {
+                moveUnderCursor(node, e.getScreenX(), e.getScreenY());
+                e.consume();
+            } else if (!isTornOff(node)
+                    && Math.hypot(e.getScreenX() - pressed[0], e.getScreenY() - pressed[1]) > DRAG_THRESHOLD) {
+                dragging[0] = tearOff(node, e.getScreenX(), e.getScreenY()) != null;
+                e.consume();
+            }
+        });
+        handle.addEventHandler(MouseEvent.MOUSE_RELEASED, (e) -> dragging[0] = false);
+    }
+
+    /**
+     * Moves the window of the torn off node so that the cursor has the same position relative to the window as when
+     * the node was torn off. It is used when the node is torn off during dragging.
+     */
+    public void moveUnderCursor(Node node, double screenX, double screenY) {
+        var origin = this.origins.get(node);
+        if (origin != null) {
+            origin.window.getStage().setX(screenX - origin.offsetX);
+            origin.window.getStage().setY(screenY - origin.offsetY);
+        }
+    }
+
+    /**
+     * Returns the torn off node to its place and hides its window.
+     *
+     * @return false if the node is not torn off.
+     */
+    public boolean dock(Node node) {
+        var origin = this.origins.remove(node);
+        if (origin == null) {
+            return false;
+        }
+        var window = origin.window;
+        window.setContent(null);
+        if (origin.controller != null) {
+            origin.controller.setContent(node);
+        } else {
+            var children = origin.parent.getChildren();
+            children.add(Math.max(0, Math.min(origin.index, children.size())), node);
+        }
+        if (window.getStage().isShowing()) {
+            window.getStage().hide();
+        }
+        if (this.pool.size() < this.poolSize) {
+            this.pool.push(window);
+        }
+        return true;
+    }
+
+    public boolean isTornOff(Node node) {
+        return this.origins.containsKey(node);
+    }
+
+    /**
+     * Returns the window of the torn off node or null.
+     */
+    public StandardStageController getWindow(Node node) {
+        var origin = this.origins.get(node);
+        return origin == null ? null : origin.window;
+    }
+
+    public int getPoolSize() {
+        return poolSize;
+    }
+
+    /**
+     * Sets the max number of the hidden windows that are kept for the next tear offs. The default value is 2.
+     */
+    public void setPoolSize(int size) {
+        this.poolSize = size;
+        while (this.pool.size() > size) {
+            this.pool.pop();
+        }
+    }
+
+    /**
+     * Sets the factory of the windows for torn off nodes. The factory must not show the stage.
+     */
+    public void setWindowFactory(Supplier<? extends StandardStageController> factory) {
+        this.windowFactory = factory;
+    }
+
+    private StandardStageController createWindow() {
+        StandardStageController window = this.windowFactory.get();
+        //the node is docked when the user closes its window
+        window.getStage().addEventHandler(WindowEvent.WINDOW_HIDDEN, (e) -> {
+            for (var entry : this.origins.entrySet()) {
+                if (entry.getValue().window == window) {
+                    dock(entry.getKey());
+                    break;
+                }
+            }
+        });
+        return window;
+    }
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright 2024 Pavel Castornii.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.techsenger.stagepro.core;
+
+/**
+ * The looked-up colors of the stage chrome that are defined on {@code .stage-box} in {@code stage.css}. A token can be
+ * changed for one stage with {@link BaseStageController#setThemeToken(ThemeToken, javafx.scene.paint.Color)} or for
+ * all stages with {@link StageProRegistry#setThemeToken(ThemeToken, javafx.scene.paint.Color)}. Such a change is one
+ * inline style update of the stage box, no stylesheet is parsed. The tokens are appended to the inline style that is
+ * set by the application, so this style is kept.
+ *
+ * @author Pavel Castornii
+ */
+public enum ThemeToken {
+
+    /**
+     * The color of the one pixel border of the stage.
+     */
+    BORDER("-sp-border-color"),
+
+    /**
+     * The background color of the stage box.
+     */
+    BACKGROUND("-sp-background-color"),
+
+    /**
+     * The background color of the title bar.
+     */
+    TITLE_BAR("-sp-title-bar-color"),
+
+    /**
+     * The color of the title text.
+     */
+    TITLE_TEXT("-sp-title-text-color"),
+
+    /**
+     * The background color of the title bar buttons.
+     */
+    BUTTON("-sp-button-color");
+
+    private final String cssName;
+
+    ThemeToken(String cssName) {
+        this.cssName = cssName;
+    }
+
+    /**
+     * Returns the name of the looked-up color in CSS.
+     */
+    public String getCssName() {
+        return cssName;
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright 2024 Pavel Castornii.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.techsenger.stagepro.core;
+
+import java.util.List;
+import javafx.geometry.Rectangle2D;
+
+/**
+ * A layout that is used by {@link StageTiler} to compute the bounds of the tiled stages on one screen.
+ *
+ * @author Pavel Castornii
+ */
+public interface TileLayout {
+
+    /**
+     * A stage that is tiled.
+     */
+    interface Tile {
+
+        double getMinWidth();
+
+        double getMinHeight();
+
+        /**
+         * Returns the weight of the width of the tile, the tile with the weight 2 is twice as wide as the tile with the
+         * weight 1 in the same row.
+         */
+        double getWidthWeight();
+
+        /**
+         * Returns the weight of the height of the tile, the tile with the weight 2 is twice as high as the tile with
+         * the weight 1 in the same column.
+         */
+        double getHeightWeight();
+    }
+
+    /**
+     * Stages are arranged in a grid with ceil(sqrt(n)) columns, cells of the last row share the whole row. The
+     * widths of the cells are proportional to their width weights, the height of a row is proportional to the average
+     * height weight of its cells.
+     */
+    static TileLayout grid() {
+        return TileLayouts::grid;
+    }
+
+    /**
+     * Stages are arranged in one row, their widths are proportional to their width weights.
+     */
+    static TileLayout columns() {
+        return TileLayouts::columns;
+    }
+
+    /**
+     * Stages are arranged in one column, their heights are proportional to their height weights.
+     */
+    static TileLayout rows() {
+        return TileLayouts::rows;
+    }
+
+    /**
+     * The first stage (master) takes the given part of the width, other stages are stacked on the right side, their
+     * heights are proportional to their height weights.
+     *
+     * @param ratio the part of the width of the master stage, from 0 to 1.
+     */
+    static TileLayout masterStack(double ratio) {
+        return (area, tiles, gap) -> TileLayouts.masterStack(area, tiles, gap, ratio);
+    }
+
+    /**
+     * Computes the bounds of the tiles. Every tile must be at least as big as its min width and min height, if the
+     * area is too small the bounds can go beyond it.
+     *
+     * @param area the area of the screen.
+     * @param tiles the tiles.
+     * @param gap the space between the tiles.
+     * @return the list of bounds, one for every tile in the same order.
+     */
+    List<Rectangle2D> layout(Rectangle2D area, List<? extends Tile> tiles, double gap);
+}
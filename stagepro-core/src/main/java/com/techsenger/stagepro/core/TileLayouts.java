@@ -0,0 +1,191 @@
+/*
+ * Copyright 2024 Pavel Castornii.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.techsenger.stagepro.core;
+
+import java.util.ArrayList;
+import java.util.List;
+import javafx.geometry.Rectangle2D;
+
+/**
+ * Standard tile layouts.
+ *
+ * @author Pavel Castornii
+ */
+final class TileLayouts {
+
+    static List<Rectangle2D> grid(Rectangle2D area, List<? extends TileLayout.Tile> tiles, double gap) {
+        var result = new ArrayList<Rectangle2D>(tiles.size());
+        var count = tiles.size();
+        if (count == 0) {
+            return result;
+        }
+        var columns = (int) Math.ceil(Math.sqrt(count));
+        var rows = (int) Math.ceil((double) count / columns);
+        var rowWeights = new double[rows];
+        var rowMins = new double[rows];
+        for (int row = 0; row < rows; row++) {
+            var weightSum = 0.0;
+            var end = Math.min(count, (row + 1) * columns);
+            for (int i = row * columns; i < end; i++) {
+                weightSum += tiles.get(i).getHeightWeight();
+                rowMins[row] = Math.max(rowMins[row], tiles.get(i).getMinHeight());
+            }
+            rowWeights[row] = weightSum / (end - row * columns);
+        }
+        var heights = distribute(area.getHeight(), gap, rowWeights, rowMins);
+        var y = area.getMinY();
+        for (int row = 0; row < rows; row++) {
+            var rowTiles = tiles.subList(row * columns, Math.min(count, (row + 1) * columns));
+            var widths = distribute(area.getWidth(), gap, widthWeights(rowTiles), minWidths(rowTiles));
+            var x = area.getMinX();
+            for (var width : widths) {
+                result.add(new Rectangle2D(x, y, width, heights[row]));
+                x += width + gap;
+            }
+            y += heights[row] + gap;
+        }
+        return result;
+    }
+
+    static List<Rectangle2D> columns(Rectangle2D area, List<? extends TileLayout.Tile> tiles, double gap) {
+        var result = new ArrayList<Rectangle2D>(tiles.size());
+        var widths = distribute(area.getWidth(), gap, widthWeights(tiles), minWidths(tiles));
+        var x = area.getMinX();
+        for (int i = 0; i < widths.length; i++) {
+            var height = Math.max(area.getHeight(), tiles.get(i).getMinHeight());
+            result.add(new Rectangle2D(x, area.getMinY(), widths[i], height));
+            x += widths[i] + gap;
+        }
+        return result;
+    }
+
+    static List<Rectangle2D> rows(Rectangle2D area, List<? extends TileLayout.Tile> tiles, double gap) {
+        var result = new ArrayList<Rectangle2D>(tiles.size());
+        var heights = distribute(area.getHeight(), gap, heightWeights(tiles), minHeights(tiles));
+        var y = area.getMinY();
+        for (int i = 0; i < heights.length; i++) {
+            var width = Math.max(area.getWidth(), tiles.get(i).getMinWidth());
+            result.add(new Rectangle2D(area.getMinX(), y, width, heights[i]));
+            y += heights[i] + gap;
+        }
+        return result;
+    }
+
+    static List<Rectangle2D> masterStack(Rectangle2D area, List<? extends TileLayout.Tile> tiles, double gap,
+            double ratio) {
+        if (tiles.size() < 2) {
+            return columns(area, tiles, gap);
+        }
+        var master = tiles.get(0);
+        var stack = tiles.subList(1, tiles.size());
+        var stackMinWidth = 0.0;
+        for (var tile : stack) {
+            stackMinWidth = Math.max(stackMinWidth, tile.getMinWidth());
+        }
+        var widths = distribute(area.getWidth(), gap, new double[] {ratio, 1 - ratio},
+                new double[] {master.getMinWidth(), stackMinWidth});
+        var result = new ArrayList<Rectangle2D>(tiles.size());
+        result.add(new Rectangle2D(area.getMinX(), area.getMinY(), widths[0],
+                Math.max(area.getHeight(), master.getMinHeight())));
+        var stackArea = new Rectangle2D(area.getMinX() + widths[0] + gap, area.getMinY(), widths[1],
+                area.getHeight());
+        result.addAll(rows(stackArea, stack, gap));
+        return result;
+    }
+
+    /**
+     * Distributes the total size minus gaps among the items proportionally to their weights, so that every item
+     * is not less than its min size. If the total size is less than the sum of min sizes, min sizes are returned.
+     */
+    static double[] distribute(double total, double gap, double[] weights, double[] mins) {
+        var count = weights.length;
+        var sizes = new double[count];
+        if (count == 0) {
+            return sizes;
+        }
+        var available = total - gap * (count - 1);
+        var fixed = new boolean[count];
+        //every pass fixes at least one item at its min size or finishes, so there are at most count passes
+        for (int pass = 0; pass <= count; pass++) {
+            var free = available;
+            var weightSum = 0.0;
+            for (int i = 0; i < count; i++) {
+                if (fixed[i]) {
+                    free -= mins[i];
+                } else {
+                    weightSum += Math.max(0, weights[i]);
+                }
+            }
+            var changed = false;
+            for (int i = 0; i < count; i++) {
+                if (fixed[i]) {
+                    sizes[i] = mins[i];
+                } else {
+                    var share = weightSum > 0 ? Math.max(0, weights[i]) / weightSum : 0;
+                    sizes[i] = Math.max(0, free) * share;
+                    if (sizes[i] < mins[i]) {
+                        fixed[i] = true;
+                        changed = true;
+                    }
+                }
+            }
+            if (!changed) {
+                break;
+            }
+        }
+        for (int i = 0; i < count; i++) {
+            sizes[i] = Math.floor(Math.max(sizes[i], mins[i]));
+        }
+        return sizes;
+    }
+
+    private static double[] widthWeights(List<? extends TileLayout.Tile> tiles) {
+        var result = new double[tiles.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = tiles.get(i).getWidthWeight();
+        }
+        return result;
+    }
+
+    private static double[] heightWeights(List<? extends TileLayout.Tile> tiles) {
+        var result = new double[tiles.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = tiles.get(i).getHeightWeight();
+        }
+        return result;
+    }
+
+    private static double[] minWidths(List<? extends TileLayout.Tile> tiles) {
+        var result = new double[tiles.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = tiles.get(i).getMinWidth();
+        }
+        return result;
+    }
+
+    private static double[] minHeights(List<? extends TileLayout.Tile> tiles) {
+        var result = new double[tiles.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = tiles.get(i).getMinHeight();
+        }
+        return result;
+    }
+
+    private TileLayouts() {
+        //empty
+    }
+}
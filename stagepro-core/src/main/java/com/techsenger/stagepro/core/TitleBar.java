@@ -0,0 +1,389 @@
+/*
+ * Copyright 2024 Pavel Castornii.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.techsenger.stagepro.core;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import javafx.beans.property.DoubleProperty;
+import javafx.collections.FXCollections;
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+import javafx.css.CssMetaData;
+import javafx.css.Styleable;
+import javafx.css.StyleableDoubleProperty;
+import javafx.css.StyleableProperty;
+import javafx.css.converter.SizeConverter;
+import javafx.scene.Node;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.Priority;
+import javafx.scene.layout.Region;
+
+/**
+ * The title bar of the stage. It has three slots: leading, center and trailing. Leading nodes are laid out from the
+ * left side, trailing nodes from the right side and center nodes take the space between them. Center nodes with
+ * {@link HBox#setHgrow(Node, Priority)} set to {@link Priority#ALWAYS} get all the extra space.
+ *
+ * <p>All nodes of all slots are direct children of the title bar, so the whole bar is laid out in a single pass.
+ * The preferred sizes of the children are cached and when only the width of the bar changes (for example, during
+ * stage resizing) and center nodes don't need to be resized, only the trailing nodes are relocated.
+ *
+ * @author Pavel Castornii
+ */
+public class TitleBar extends Region {
+
+    private static final CssMetaData<TitleBar, Number> SPACING =
+            new CssMetaData<>("-fx-spacing", SizeConverter.getInstance(), 0.0) {
+
+        @Override
+        public boolean isSettable(TitleBar node) {
+            return node.spacing == null || !node.spacing.isBound();
+        }
+
+        @Override
+        public StyleableProperty<Number> getStyleableProperty(TitleBar node) {
+            return (StyleableProperty<Number>) node.spacingProperty();
+        }
+    };
+
+    private static final List<CssMetaData<? extends Styleable, ?>> cssMetaData;
+
+    static {
+        var list = new ArrayList<>(Region.getClassCssMetaData());
+        list.add(SPACING);
+        cssMetaData = Collections.unmodifiableList(list);
+    }
+
+    public static List<CssMetaData<? extends Styleable, ?>> getClassCssMetaData() {
+        return cssMetaData;
+    }
+
+    private final ObservableList<Node> leading = FXCollections.observableArrayList();
+
+    private final ObservableList<Node> center = FXCollections.observableArrayList();
+
+    private final ObservableList<Node> trailing = FXCollections.observableArrayList();
+
+    private DoubleProperty spacing;
+
+    /**
+     * Becomes true when a child or the bar itself requests layout. The cached sizes are recomputed then.
+     */
+    private boolean sizesDirty = true;
+
+    /**
+     * Becomes true when a child or the bar itself requests layout. When false only the size of the bar has changed.
+     */
+    private boolean layoutDirty = true;
+
+    private double[] leadingWidths = new double[0];
+
+    private double[] centerWidths = new double[0];
+
+    private double[] trailingWidths = new double[0];
+
+    private double cachedPrefWidth = -1;
+
+    private double cachedPrefHeight = -1;
+
+    private double lastWidth = -1;
+
+    private double lastHeight = -1;
+
+    private double centerPrefWidth;
+
+    private boolean centerGrows;
+
+    public TitleBar() {
+        ListChangeListener<Node> listener = (c) -> updateChildren();
+        leading.addListener(listener);
+        center.addListener(listener);
+        trailing.addListener(listener);
+        getStyleClass().add("title-bar");
+    }
+
+    /**
+     * Nodes that are laid out from the left side of the bar.
+     */
+    public ObservableList<Node> getLeading() {
+        return leading;
+    }
+
+    /**
+     * Nodes that are laid out between leading and trailing nodes.
+     */
+    public ObservableList<Node> getCenter() {
+        return center;
+    }
+
+    /**
+     * Nodes that are laid out from the right side of the bar.
+     */
+    public ObservableList<Node> getTrailing() {
+        return trailing;
+    }
+
+    /**
+     * The horizontal space between the nodes.
+     */
+    public DoubleProperty spacingProperty() {
+        if (spacing == null) {
+            spacing = new StyleableDoubleProperty() {
+
+                @Override
+                protected void invalidated() {
+                    requestLayout();
+                }
+
+                @Override
+                public Object getBean() {
+                    return TitleBar.this;
+                }
+
+                @Override
+                public String getName() {
+                    return "spacing";
+                }
+
+                @Override
+                public CssMetaData<TitleBar, Number> getCssMetaData() {
+                    return SPACING;
+                }
+            };
+        }
+        return spacing;
+    }
+
+    public double getSpacing() {
+        return spacing == null ? 0 : spacing.get();
+    }
+
+    public void setSpacing(double value) {
+        spacingProperty().set(value);
+    }
+
+    @Override
+    public List<CssMetaData<? extends Styleable, ?>> getCssMetaData() {
+        return getClassCssMetaData();
+    }
+
+    @Override
+    public void requestLayout() {
+        this.sizesDirty = true;
+        this.layoutDirty = true;
+        super.requestLayout();
+    }
+
+    @Override
+    protected double computeMinWidth(double height) {
+        return snappedLeftInset() + snappedRightInset();
+    }
+
+    @Override
+    protected double computePrefWidth(double height) {
+        updateSizes();
+        return this.cachedPrefWidth;
+    }
+
+    @Override
+    protected double computeMinHeight(double width) {
+        return computePrefHeight(width);
+    }
+
+    @Override
+    protected double computePrefHeight(double width) {
+        updateSizes();
+        return this.cachedPrefHeight;
+    }
+
+    @Override
+    protected void layoutChildren() {
+        var width = getWidth();
+        var height = getHeight();
+        if (!this.layoutDirty && height == this.lastHeight && this.lastWidth >= 0 && !this.centerGrows
+                && this.centerPrefWidth <= resolveCenterSpace(width) && this.centerPrefWidth <= resolveCenterSpace(
+                this.lastWidth)) {
+            //only the width has changed and center nodes keep their pref widths, so only trailing nodes are moved
+            layoutTrailing(width, snappedTopInset(), height - snappedTopInset() - snappedBottomInset(),
+                    snapSpaceX(getSpacing()));
+            this.lastWidth = width;
+            return;
+        }
+        updateSizes();
+        var top = snappedTopInset();
+        var contentHeight = height - top - snappedBottomInset();
+        var space = snapSpaceX(getSpacing());
+        var x = snappedLeftInset();
+        for (int i = 0; i < this.leading.size(); i++) {
+            var node = this.leading.get(i);
+            if (node.isManaged()) {
+                layoutNode(node, x, top, this.leadingWidths[i], contentHeight);
+                x += this.leadingWidths[i] + space;
+            }
+        }
+        var right = layoutTrailing(width, top, contentHeight, space);
+        layoutCenter(x, Math.max(0, right - x), top, contentHeight, space);
+        this.lastWidth = width;
+        this.lastHeight = height;
+        this.layoutDirty = false;
+    }
+
+    /**
+     * Lays out trailing nodes and returns the left boundary of the trailing slot.
+     */
+    private double layoutTrailing(double width, double top, double contentHeight, double space) {
+        var right = width - snappedRightInset();
+        for (int i = this.trailing.size() - 1; i >= 0; i--) {
+            var node = this.trailing.get(i);
+            if (node.isManaged()) {
+                right -= this.trailingWidths[i];
+                layoutNode(node, right, top, this.trailingWidths[i], contentHeight);
+                right -= space;
+            }
+        }
+        return right;
+    }
+
+    private void layoutCenter(double x, double available, double top, double contentHeight, double space) {
+        var count = countManaged(this.center);
+        if (count == 0) {
+            return;
+        }
+        var extra = available - this.centerPrefWidth;
+        var nodesWidth = this.centerPrefWidth - space * (count - 1);
+        var growCount = 0;
+        for (var node : this.center) {
+            if (node.isManaged() && HBox.getHgrow(node) == Priority.ALWAYS) {
+                growCount++;
+            }
+        }
+        for (int i = 0; i < this.center.size(); i++) {
+            var node = this.center.get(i);
+            if (!node.isManaged()) {
+                continue;
+            }
+            var w = this.centerWidths[i];
+            if (extra > 0) {
+                if (growCount > 0 && HBox.getHgrow(node) == Priority.ALWAYS) {
+                    w += extra / growCount;
+                }
+            } else if (extra < 0) {
+                //shrinking proportionally, but not below min width
+                w = Math.max(node.minWidth(-1), w + extra * w / Math.max(1, nodesWidth));
+            }
+            w = snapSizeX(w);
+            layoutNode(node, x, top, w, contentHeight);
+            x += w + space;
+        }
+    }
+
+    private void layoutNode(Node node, double x, double top, double w, double contentHeight) {
+        var h = contentHeight;
+        if (node.isResizable()) {
+            h = Math.max(node.minHeight(w), Math.min(node.maxHeight(w), contentHeight));
+        } else {
+            h = node.prefHeight(w);
+        }
+        node.resizeRelocate(snapPositionX(x), snapPositionY(top + (contentHeight - h) / 2), w, snapSizeY(h));
+    }
+
+    private double resolveCenterSpace(double width) {
+        var used = snappedLeftInset() + snappedRightInset();
+        var space = snapSpaceX(getSpacing());
+        for (int i = 0; i < this.leading.size(); i++) {
+            if (this.leading.get(i).isManaged()) {
+                used += this.leadingWidths[i] + space;
+            }
+        }
+        for (int i = 0; i < this.trailing.size(); i++) {
+            if (this.trailing.get(i).isManaged()) {
+                used += this.trailingWidths[i] + space;
+            }
+        }
+        return width - used;
+    }
+
+    private void updateSizes() {
+        if (!this.sizesDirty) {
+            return;
+        }
+        this.leadingWidths = computeWidths(this.leading, this.leadingWidths);
+        this.centerWidths = computeWidths(this.center, this.centerWidths);
+        this.trailingWidths = computeWidths(this.trailing, this.trailingWidths);
+        var space = snapSpaceX(getSpacing());
+        var managed = countManaged(this.leading) + countManaged(this.center) + countManaged(this.trailing);
+        this.centerPrefWidth = sum(this.center, this.centerWidths) + Math.max(0, countManaged(this.center) - 1)
+                * space;
+        this.centerGrows = false;
+        for (var node : this.center) {
+            if (node.isManaged() && HBox.getHgrow(node) == Priority.ALWAYS) {
+                this.centerGrows = true;
+                break;
+            }
+        }
+        this.cachedPrefWidth = snappedLeftInset() + snappedRightInset() + sum(this.leading, this.leadingWidths)
+                + sum(this.center, this.centerWidths) + sum(this.trailing, this.trailingWidths)
+                + Math.max(0, managed - 1) * space;
+        var maxHeight = 0.0;
+        for (var node : getChildren()) {
+            if (node.isManaged()) {
+                maxHeight = Math.max(maxHeight, node.prefHeight(-1));
+            }
+        }
+        this.cachedPrefHeight = snappedTopInset() + snappedBottomInset() + maxHeight;
+        this.sizesDirty = false;
+    }
+
+    private double[] computeWidths(List<Node> nodes, double[] widths) {
+        if (widths.length != nodes.size()) {
+            widths = new double[nodes.size()];
+        }
+        for (int i = 0; i < nodes.size(); i++) {
+            var node = nodes.get(i);
+            widths[i] = node.isManaged() ? snapSizeX(node.prefWidth(-1)) : 0;
+        }
+        return widths;
+    }
+
+    private double sum(List<Node> nodes, double[] widths) {
+        var result = 0.0;
+        for (int i = 0; i < nodes.size(); i++) {
+            if (nodes.get(i).isManaged()) {
+                result += widths[i];
+            }
+        }
+        return result;
+    }
+
+    private int countManaged(List<Node> nodes) {
+        var count = 0;
+        for (var node : nodes) {
+            if (node.isManaged()) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private void updateChildren() {
+        var nodes = new ArrayList<Node>(this.leading.size() + this.center.size() + this.trailing.size());
+        nodes.addAll(this.leading);
+        nodes.addAll(this.center);
+        nodes.addAll(this.trailing);
+        getChildren().setAll(nodes);
+    }
+}
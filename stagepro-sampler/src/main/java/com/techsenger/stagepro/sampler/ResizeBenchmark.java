@@ -0,0 +1,126 @@
+/*
+ * Copyright 2024 Pavel Castornii.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.techsenger.stagepro.sampler;
+
+import com.techsenger.stagepro.core.BaseStageController;
+import com.techsenger.stagepro.core.StandardStageController;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Queue;
+import javafx.animation.AnimationTimer;
+import javafx.application.Application;
+import javafx.application.Platform;
+import javafx.scene.control.Button;
+import javafx.scene.layout.FlowPane;
+import javafx.stage.Stage;
+
+/**
+ * Resizes a stage in every rendering mode frame by frame and reports the frame times. The frame time is the time
+ * between two pulses, so it includes the native resize, css, layout and rendering.
+ *
+ * <p>Usage: {@code ResizeBenchmark [--frames=300]}.
+ *
+ * @author Pavel Castornii
+ */
+public class ResizeBenchmark extends Application {
+
+    private static final String FRAMES_ARG = "--frames=";
+
+    public static void main(String[] args) {
+        launch(args);
+    }
+
+    private final Queue<BaseStageController.RenderingMode> modes =
+            new ArrayDeque<>(Arrays.asList(BaseStageController.RenderingMode.values()));
+
+    private int frames = 300;
+
+    @Override
+    public void start(Stage primaryStage) {
+        for (var arg : getParameters().getRaw()) {
+            if (arg.startsWith(FRAMES_ARG)) {
+                this.frames = Integer.parseInt(arg.substring(FRAMES_ARG.length()));
+            }
+        }
+        //the stages are closed between the modes
+        Platform.setImplicitExit(false);
+        System.out.println(String.format("%-12s %-12s %8s %8s %8s", "Mode", "Style", "Avg, ms", "P95, ms",
+                "Max, ms"));
+        runNextMode();
+    }
+
+    private void runNextMode() {
+        var mode = this.modes.poll();
+        if (mode == null) {
+            Platform.exit();
+            return;
+        }
+        var stage = new Stage();
+        var controller = new StandardStageController(stage, 800, 600);
+        controller.setRenderingMode(mode);
+        controller.getTitleLabel().setText(mode.name());
+        var content = new FlowPane();
+        for (var i = 0; i < 200; i++) {
+            content.getChildren().add(new Button("Button " + i));
+        }
+        controller.setContent(content);
+        stage.setX(100);
+        stage.setY(100);
+        stage.show();
+        var times = new long[this.frames];
+        var timer = new AnimationTimer() {
+
+            private long previous = 0;
+
+            private int frame = -1;
+
+            @Override
+            public void handle(long now) {
+                if (this.frame >= 0) {
+                    times[this.frame] = now - this.previous;
+                }
+                this.previous = now;
+                this.frame++;
+                if (this.frame == times.length) {
+                    stop();
+                    report(mode, stage, times);
+                    stage.close();
+                    runNextMode();
+                    return;
+                }
+                //the size changes every frame like when the user drags the corner
+                var delta = 200 * Math.sin(this.frame * Math.PI / 60);
+                stage.setWidth(800 + delta);
+                stage.setHeight(600 + delta / 2);
+            }
+        };
+        timer.start();
+    }
+
+    private void report(BaseStageController.RenderingMode mode, Stage stage, long[] times) {
+        var sorted = times.clone();
+        Arrays.sort(sorted);
+        var total = 0L;
+        for (var t : sorted) {
+            total += t;
+        }
+        var avg = total / (double) sorted.length / 1_000_000;
+        var p95 = sorted[(int) Math.min(sorted.length - 1, Math.ceil(sorted.length * 0.95) - 1)] / 1_000_000.0;
+        var max = sorted[sorted.length - 1] / 1_000_000.0;
+        System.out.println(String.format("%-12s %-12s %8.2f %8.2f %8.2f", mode, stage.getStyle(), avg, p95, max));
+    }
+}
@@ -18,30 +18,51 @@ package com.techsenger.stagepro.sampler;
 
 import com.techsenger.stagepro.core.SimpleStageController;
 import com.techsenger.stagepro.core.BaseStageController;
+import com.techsenger.stagepro.core.CanvasStageController;
+import com.techsenger.stagepro.core.InternalDesktop;
+import com.techsenger.stagepro.core.InternalWindow;
 import com.techsenger.stagepro.core.MaximizeButton;
-import com.techsenger.stagepro.core.StageResizeEvent;
+import com.techsenger.stagepro.core.PopupController;
+import com.techsenger.stagepro.core.SessionRestoreEvent;
+import com.techsenger.stagepro.core.SessionRestorer;
+import com.techsenger.stagepro.core.SnapZones;
 import com.techsenger.stagepro.core.Spacer;
+import com.techsenger.stagepro.core.StageProRegistry;
+import com.techsenger.stagepro.core.StageResizeEvent;
 import com.techsenger.stagepro.core.StandardStageController;
+import com.techsenger.stagepro.core.TearOffManager;
+import com.techsenger.stagepro.core.ThemeToken;
+import java.time.Instant;
 import java.util.List;
+import java.util.Map;
+import javafx.animation.PauseTransition;
 import javafx.application.Application;
+import javafx.application.Platform;
 import javafx.beans.property.ReadOnlyObjectWrapper;
 import javafx.beans.property.ReadOnlyStringWrapper;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
+import javafx.geometry.Side;
 import javafx.scene.Scene;
 import javafx.scene.control.Button;
+import javafx.scene.control.Label;
+import javafx.scene.control.ListView;
 import javafx.scene.control.Menu;
 import javafx.scene.control.MenuBar;
 import javafx.scene.control.TableCell;
 import javafx.scene.control.TableColumn;
 import javafx.scene.control.TableView;
+import javafx.scene.image.Image;
 import javafx.scene.layout.HBox;
 import javafx.scene.layout.Priority;
 import javafx.scene.layout.StackPane;
 import javafx.scene.layout.VBox;
+import javafx.scene.paint.Color;
+import javafx.stage.Screen;
 import javafx.stage.Stage;
+import javafx.util.Duration;
 
 /**
  *
@@ -49,6 +70,16 @@ import javafx.stage.Stage;
  */
 public class Sampler extends Application {
 
+    /**
+     * Opens all the samples and exits. It is used for the training run that creates the class data sharing archive.
+     */
+    private static final String TRAINING_ARG = "--training";
+
+    /**
+     * Prints the time from the start of the process to the first shown frame and exits.
+     */
+    private static final String BENCHMARK_ARG = "--benchmark";
+
     public static void main(String[] args) {
         launch(args);
     }
@@ -119,6 +150,12 @@ public class Sampler extends Application {
         primaryStage.setScene(scene);
         primaryStage.setTitle("StagePro Sampler");
         primaryStage.show();
+        var args = getParameters().getRaw();
+        if (args.contains(TRAINING_ARG)) {
+            runTraining(samples);
+        } else if (args.contains(BENCHMARK_ARG)) {
+            printStartupTime(scene);
+        }
     }
 
     private List<Sample> createSamples() {
@@ -129,7 +166,15 @@ public class Sampler extends Application {
                 createSample4(),
                 createSample5(),
                 createSample6(),
-                createSample7()
+                createSample7(),
+                createSample8(),
+                createSample9(),
+                createSample10(),
+                createSample11(),
+                createSample12(),
+                createSample13(),
+                createSample14(),
+                createSample15()
         );
     }
 
@@ -187,9 +232,9 @@ public class Sampler extends Application {
 
             LeftStandardStageController(Stage stage, double width, double height) {
                 super(stage, width, height, false);
-                getButtonBox().getChildren().addAll(getCloseButton(), getMinimizeButton(), getMaximizeButton());
-                getTitleBar().getChildren().addAll(getButtonBox(), new Spacer(10), getTitleLabel(),
-                        new Spacer());
+                getTitleBar().getLeading().addAll(getCloseButton(), getMinimizeButton(), getMaximizeButton(),
+                        new Spacer(10));
+                getTitleBar().getCenter().add(getTitleLabel());
             }
         }
         return new Sample(5, LeftStandardStageController.class.getSimpleName(),
@@ -233,8 +278,9 @@ public class Sampler extends Application {
                 LeftStandardStageController(Stage stage, double width, double height) {
                     super(stage, width, height, false);
                     this.menuBar.setStyle("-fx-background-color: #CCCCCC;");
-                    getButtonBox().getChildren().addAll(getMinimizeButton(), getMaximizeButton(), getCloseButton());
-                    getTitleBar().getChildren().addAll(getIconView(), menuBar, new Spacer(), getButtonBox());
+                    getTitleBar().getLeading().add(getIconView());
+                    getTitleBar().getCenter().add(menuBar);
+                    getTitleBar().getTrailing().addAll(getMinimizeButton(), getMaximizeButton(), getCloseButton());
                 }
             }
             var controller = new LeftStandardStageController(stage, 800, 550);
@@ -244,6 +290,211 @@ public class Sampler extends Application {
         });
     }
 
+    private Sample createSample8() {
+        return new Sample(8, CanvasStageController.class.getSimpleName(),
+                "Icon, text and three buttons drawn on one canvas", () -> {
+            var stage = new Stage();
+            stage.setTitle("Title");
+            stage.getIcons().add(new Image(Sampler.class.getResource("icon-light.png").toExternalForm()));
+            var controller = new CanvasStageController(stage, 800, 550);
+            var button = new Button("Close");
+            button.setOnAction(e -> stage.close());
+            controller.setContent(new StackPane(button));
+            stage.show();
+        });
+    }
+
+    private Sample createSample9() {
+        return new Sample(9, StandardStageController.class.getSimpleName(),
+                "Icon and text on the left, three buttons on the right, shadow", () -> {
+            var stage = new Stage();
+            var controller = new StandardStageController(stage, 800, 550);
+            setTitleAndCss(controller);
+            controller.setShadowRadius(15);
+            setStateTestContent(stage, controller);
+            stage.show();
+        });
+    }
+
+    private void runTraining(List<Sample> samples) {
+        for (var sample : samples) {
+            sample.getAction().run();
+        }
+        //some pulses are required for css, layout and rendering of all the stages
+        var pause = new PauseTransition(Duration.seconds(3));
+        pause.setOnFinished(e -> Platform.exit());
+        pause.play();
+    }
+
+    private void printStartupTime(Scene scene) {
+        Runnable listener = new Runnable() {
+
+            @Override
+            public void run() {
+                scene.removePostLayoutPulseListener(this);
+                //the frame is rendered after the layout, so the time is printed in the next runnable
+                Platform.runLater(() -> {
+                    var start = ProcessHandle.current().info().startInstant().orElse(Instant.now());
+                    var millis = java.time.Duration.between(start, Instant.now()).toMillis();
+                    System.out.println("Startup time: " + millis + " ms");
+                    Platform.exit();
+                });
+            }
+        };
+        scene.addPostLayoutPulseListener(listener);
+    }
+
+    private Sample createSample10() {
+        return new Sample(10, InternalWindow.class.getSimpleName(),
+                "Fifty internal windows on one desktop, size effect", () -> {
+            var stage = new Stage();
+            var controller = new StandardStageController(stage, 1000, 700);
+            setTitleAndCss(controller);
+            var desktop = new InternalDesktop();
+            for (var i = 0; i < 50; i++) {
+                var window = new InternalWindow(300, 200);
+                window.getTitleLabel().setText("Window " + (i + 1));
+                window.setSizeEffectEnabled(true);
+                window.setContent(new StackPane(new Button("Button " + (i + 1))));
+                window.relocate(20 + (i % 10) * 25, 20 + (i % 10) * 25 + (i / 10) * 10);
+                desktop.getChildren().add(window);
+            }
+            controller.setContent(desktop);
+            stage.show();
+        });
+    }
+
+    private Sample createSample11() {
+        return new Sample(11, PopupController.class.getSimpleName(),
+                "Resizable popup that is reused and re-anchored", () -> {
+            var stage = new Stage();
+            var controller = new StandardStageController(stage, 800, 550);
+            setTitleAndCss(controller);
+            var popupController = new PopupController(300, 200);
+            popupController.getTitleLabel().setText("Inspector");
+            popupController.setContent(new StackPane(new Button("Popup content")));
+            popupController.getPopup().getScene().getStylesheets()
+                    .add(Sampler.class.getResource("light-theme.css").toExternalForm());
+            var buttons = new HBox();
+            buttons.setAlignment(Pos.CENTER);
+            buttons.setSpacing(10);
+            for (var side : List.of(Side.TOP, Side.RIGHT, Side.BOTTOM, Side.LEFT)) {
+                var button = new Button("Show at " + side.name().toLowerCase());
+                button.setOnAction(e -> popupController.show(button, side));
+                buttons.getChildren().add(button);
+            }
+            controller.setContent(buttons);
+            stage.show();
+        });
+    }
+
+    private Sample createSample12() {
+        return new Sample(12, StandardStageController.class.getSimpleName(),
+                "Snap zones (top edge split into thirds), animated maximize and restore", () -> {
+            var stage = new Stage();
+            var controller = new StandardStageController(stage, 800, 550);
+            setTitleAndCss(controller);
+            SnapZones.setColumns(Screen.getPrimary(), 3);
+            controller.setSnapZonesEnabled(true);
+            controller.setBoundsAnimationDuration(Duration.millis(200));
+            controller.setBoundsSnapshotEnabled(true);
+            stage.show();
+        });
+    }
+
+    private Sample createSample13() {
+        return new Sample(13, SessionRestorer.class.getSimpleName(),
+                "Thirty windows restored by priorities, the content is prepared off the FX thread", () -> {
+            var restorer = new SessionRestorer();
+            for (var i = 0; i < 30; i++) {
+                final var index = i;
+                var priority = i == 0 ? SessionRestorer.RestorePriority.FOCUSED
+                        : (i < 5 ? SessionRestorer.RestorePriority.VISIBLE
+                        : SessionRestorer.RestorePriority.BACKGROUND);
+                restorer.add(priority, () -> {
+                    var controller = new StandardStageController(new Stage(), 400, 300);
+                    setTitleAndCss(controller);
+                    controller.getTitleLabel().setText("Window " + (index + 1));
+                    controller.getStage().setX(50 + (index % 10) * 30);
+                    controller.getStage().setY(50 + (index % 10) * 30 + (index / 10) * 10);
+                    return controller;
+                }, () -> {
+                    //a slow model loading
+                    Thread.sleep(50);
+                    return "Content " + (index + 1);
+                }, (text) -> new StackPane(new Button(text)));
+            }
+            restorer.setOnProgress(e -> {
+                if (e.getEventType() == SessionRestoreEvent.RESTORE_FINISHED) {
+                    System.out.println("Restored " + e.getRestoredCount() + " windows");
+                }
+            });
+            restorer.start();
+        });
+    }
+
+    private Sample createSample14() {
+        return new Sample(14, TearOffManager.class.getSimpleName(),
+                "A panel that is torn off by dragging its header and docked back without being recreated", () -> {
+            var stage = new Stage();
+            var controller = new StandardStageController(stage, 800, 550);
+            setTitleAndCss(controller);
+            var manager = new TearOffManager();
+            var items = FXCollections.<String>observableArrayList();
+            for (var i = 0; i < 1000; i++) {
+                items.add("Row " + (i + 1));
+            }
+            var handle = new Label("Drag here to tear off");
+            handle.setMaxWidth(Double.MAX_VALUE);
+            handle.setPadding(new Insets(5));
+            var panel = new VBox(handle, new ListView<>(items));
+            panel.setPrefSize(300, 400);
+            manager.installDragHandle(handle, panel);
+            var button = new Button("Tear off / dock");
+            button.setOnAction(e -> {
+                if (manager.isTornOff(panel)) {
+                    manager.dock(panel);
+                } else {
+                    var bounds = button.localToScreen(button.getBoundsInLocal());
+                    manager.tearOff(panel, bounds.getMaxX() + 200, bounds.getMinY());
+                }
+            });
+            var box = new HBox(10, button, panel);
+            box.setPadding(new Insets(10));
+            controller.setContent(box);
+            stage.show();
+        });
+    }
+
+    private Sample createSample15() {
+        return new Sample(15, ThemeToken.class.getSimpleName(),
+                "Chrome colors changed at runtime for one stage or for all stages without stylesheets", () -> {
+            var stage = new Stage();
+            var controller = new StandardStageController(stage, 800, 550);
+            setTitleAndCss(controller);
+            var stageButton = new Button("Accent for this stage");
+            stageButton.setOnAction(e -> controller.setThemePalette(Map.of(
+                    ThemeToken.TITLE_BAR, Color.web("#1E5AA8"),
+                    ThemeToken.TITLE_TEXT, Color.WHITE,
+                    ThemeToken.BUTTON, Color.web("#3C78C8"),
+                    ThemeToken.BORDER, Color.web("#1E5AA8"))));
+            var allButton = new Button("Accent for all stages");
+            allButton.setOnAction(e -> StageProRegistry.getDefault().setThemePalette(Map.of(
+                    ThemeToken.TITLE_BAR, Color.web("#2E7D32"),
+                    ThemeToken.TITLE_TEXT, Color.WHITE,
+                    ThemeToken.BUTTON, Color.web("#43A047"))));
+            var resetButton = new Button("Reset");
+            resetButton.setOnAction(e -> {
+                controller.setThemePalette(Map.of());
+                StageProRegistry.getDefault().setThemePalette(Map.of());
+            });
+            var box = new HBox(10, stageButton, allButton, resetButton);
+            box.setAlignment(Pos.CENTER);
+            controller.setContent(box);
+            stage.show();
+        });
+    }
+
     private void setTitleAndCss(SimpleStageController controller) {
         controller.getTitleLabel().setText("Title");
         var cssFile = "light-theme.css";
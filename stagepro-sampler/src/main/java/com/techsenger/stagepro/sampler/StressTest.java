@@ -0,0 +1,199 @@
+/*
+ * Copyright 2024 Pavel Castornii.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.techsenger.stagepro.sampler;
+
+import com.techsenger.stagepro.core.BaseStageController;
+import com.techsenger.stagepro.core.CanvasStageController;
+import com.techsenger.stagepro.core.SimpleStageController;
+import com.techsenger.stagepro.core.StandardStageController;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.function.Function;
+import javafx.animation.AnimationTimer;
+import javafx.application.Application;
+import javafx.application.Platform;
+import javafx.scene.control.Button;
+import javafx.scene.control.Label;
+import javafx.scene.layout.VBox;
+import javafx.stage.Stage;
+
+/**
+ * Opens N stages of every controller type, maximizes and restores them, toggles their theme and closes them. For
+ * every operation the wall time (till the next pulse, so css, layout and rendering are included) is reported. Besides,
+ * the retained heap per open stage and the heap left after closing are reported.
+ *
+ * <p>Usage: {@code StressTest [--stages=100,500]}. To run it headless use the {@code stress} profile of the sampler.
+ *
+ * @author Pavel Castornii
+ */
+public class StressTest extends Application {
+
+    private static final class Step {
+
+        private final String name;
+
+        private final Runnable action;
+
+        /**
+         * The number of the stages the action is applied to, 0 means that the time is not reported.
+         */
+        private final int count;
+
+        Step(String name, int count, Runnable action) {
+            this.name = name;
+            this.count = count;
+            this.action = action;
+        }
+    }
+
+    private static final String STAGES_ARG = "--stages=";
+
+    public static void main(String[] args) {
+        launch(args);
+    }
+
+    private final Queue<Step> steps = new ArrayDeque<>();
+
+    private final List<BaseStageController> controllers = new ArrayList<>();
+
+    private long heapBefore;
+
+    @Override
+    public void start(Stage primaryStage) {
+        //all the stages are closed between the steps
+        Platform.setImplicitExit(false);
+        var counts = List.of(100, 500);
+        for (var arg : getParameters().getRaw()) {
+            if (arg.startsWith(STAGES_ARG)) {
+                counts = new ArrayList<>();
+                for (var value : arg.substring(STAGES_ARG.length()).split(",")) {
+                    counts.add(Integer.parseInt(value.trim()));
+                }
+            }
+        }
+        System.out.println(String.format("%-28s %6s %12s %14s", "Controller / operation", "Stages", "Total, ms",
+                "Per stage, ms"));
+        for (var count : counts) {
+            addSteps(BaseStageController.class.getSimpleName(), count,
+                    (stage) -> new BaseStageController(stage, 400, 300));
+            addSteps(SimpleStageController.class.getSimpleName(), count, (stage) -> {
+                var c = new SimpleStageController(stage, 400, 300);
+                c.getTitleLabel().setText("Stage");
+                return c;
+            });
+            addSteps(StandardStageController.class.getSimpleName(), count, (stage) -> {
+                var c = new StandardStageController(stage, 400, 300);
+                c.getTitleLabel().setText("Stage");
+                return c;
+            });
+            addSteps(CanvasStageController.class.getSimpleName(), count,
+                    (stage) -> new CanvasStageController(stage, 400, 300));
+        }
+        this.steps.add(new Step("exit", 0, () -> Platform.exit()));
+        runSteps();
+    }
+
+    private void addSteps(String type, int count, Function<Stage, BaseStageController> factory) {
+        this.steps.add(new Step(type, 0, () -> {
+            System.out.println(type);
+            this.heapBefore = resolveUsedHeap();
+        }));
+        this.steps.add(new Step("open", count, () -> {
+            for (var i = 0; i < count; i++) {
+                var stage = new Stage();
+                stage.setTitle("Stage " + i);
+                var controller = factory.apply(stage);
+                var button = new Button("Close");
+                button.setOnAction(e -> stage.close());
+                controller.setContent(new VBox(new Label("Stage " + i), button));
+                this.controllers.add(controller);
+                stage.show();
+            }
+        }));
+        this.steps.add(new Step("heap", 0, () -> {
+            var retained = resolveUsedHeap() - this.heapBefore;
+            System.out.println(String.format("  %-26s %6d %12s %14s", "retained heap per stage, KB", count, "",
+                    retained / count / 1024));
+        }));
+        this.steps.add(new Step("maximize", count, () -> {
+            for (var c : this.controllers) {
+                c.getStage().setMaximized(true);
+            }
+        }));
+        this.steps.add(new Step("restore", count, () -> {
+            for (var c : this.controllers) {
+                c.getStage().setMaximized(false);
+            }
+        }));
+        this.steps.add(new Step("toggle theme", count, () -> {
+            for (var c : this.controllers) {
+                c.setDarkTheme(!c.isDarkTheme());
+            }
+        }));
+        this.steps.add(new Step("close", count, () -> {
+            for (var c : this.controllers) {
+                c.getStage().close();
+            }
+            this.controllers.clear();
+        }));
+        this.steps.add(new Step("heap after close", 0, () -> {
+            var left = resolveUsedHeap() - this.heapBefore;
+            System.out.println(String.format("  %-26s %6d %12s %14s", "heap left after close, KB", count,
+                    left / 1024, ""));
+        }));
+    }
+
+    /**
+     * Runs every step in its own pulse and measures the time till the next pulse, when the result of the step has
+     * been rendered.
+     */
+    private void runSteps() {
+        var timer = new AnimationTimer() {
+
+            private Step current;
+
+            private long startTime;
+
+            @Override
+            public void handle(long now) {
+                if (this.current != null && this.current.count > 0) {
+                    var millis = (System.nanoTime() - this.startTime) / 1_000_000.0;
+                    System.out.println(String.format("  %-26s %6d %12.1f %14.3f", this.current.name,
+                            this.current.count, millis, millis / this.current.count));
+                }
+                this.current = steps.poll();
+                if (this.current == null) {
+                    stop();
+                    return;
+                }
+                this.startTime = System.nanoTime();
+                this.current.action.run();
+            }
+        };
+        timer.start();
+    }
+
+    private long resolveUsedHeap() {
+        var runtime = Runtime.getRuntime();
+        for (var i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,4 @@
+@echo off
+rem Launches the sampler with the class data sharing archive that is created by the training run.
+set DIR=%~dp0
+"%DIR%java" -XX:SharedArchiveFile="%DIR%..\lib\sampler.jsa" -Xshare:auto -m com.techsenger.stagepro.sampler/com.techsenger.stagepro.sampler.Sampler %*
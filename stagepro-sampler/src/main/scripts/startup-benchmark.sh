@@ -0,0 +1,31 @@
+#!/bin/sh
+#
+# Compares the cold start of the sampler launched from the module path, from the runtime image and from the runtime
+# image with the class data sharing archive. Every launch prints the time from the process start to the first frame.
+#
+# Usage (in stagepro-sampler after mvn verify -Pfast-start): sh src/main/scripts/startup-benchmark.sh [runs]
+#
+RUNS=${1:-10}
+TARGET=$(cd "$(dirname "$0")/../../../target" && pwd)
+MAIN=com.techsenger.stagepro.sampler/com.techsenger.stagepro.sampler.Sampler
+
+measure() {
+    NAME=$1
+    shift
+    TOTAL=0
+    I=0
+    while [ "$I" -lt "$RUNS" ]; do
+        TIME=$("$@" --benchmark | sed -n 's/^Startup time: \([0-9]*\) ms$/\1/p')
+        if [ -z "$TIME" ]; then
+            echo "$NAME: the launch failed" >&2
+            return 1
+        fi
+        TOTAL=$((TOTAL + TIME))
+        I=$((I + 1))
+    done
+    echo "$NAME: $((TOTAL / RUNS)) ms (average of $RUNS runs)"
+}
+
+measure "Module path" java --module-path "$TARGET/modules" -m "$MAIN"
+measure "Runtime image" "$TARGET/sampler/bin/java" -m "$MAIN"
+measure "Runtime image with CDS archive" "$TARGET/sampler/bin/sampler"